@@ -76,6 +76,10 @@ public final class XAttribute extends XModule<XAttribute, Attribute> {
             SWEEPING_DAMAGE_RATIO = std(/* v1.20.3+ */ "sweeping_damage_ratio", "player.sweeping_damage_ratio"),
             SPAWN_REINFORCEMENTS = std(/* v1.20.3+ */ "spawn_reinforcements", "zombie.spawn_reinforcements");
 
+    static {
+        REGISTRY.seal();
+    }
+
     private static final boolean SUPPORTS_MODERN_MODIFIERS;
 
     static {
@@ -171,6 +171,10 @@ public final class XBiome extends XModule<XBiome, Biome> {
             DRIPSTONE_CAVES = std("DRIPSTONE_CAVES"),
             LUSH_CAVES = std("LUSH_CAVES");
 
+    static {
+        REGISTRY.seal();
+    }
+
     private static final boolean World_getMaxHeight$SUPPORTED, World_getMinHeight$SUPPORTED;
 
     static {
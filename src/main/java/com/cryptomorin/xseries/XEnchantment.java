@@ -208,7 +208,7 @@ public final class XEnchantment extends XModule<XEnchantment, Enchantment> {
                             EnchantmentWrapper wrapper = (EnchantmentWrapper) enchant;
                             XEnchantment mainMapping = REGISTRY.bukkitMapping().get(wrapper.getEnchantment());
                             Objects.requireNonNull(mainMapping, () -> "No main mapping found for Enchantment." + field.getName() + " (" + wrapper + ')');
-                            REGISTRY.bukkitMapping().put(wrapper, mainMapping);
+                            REGISTRY.registerBukkitForm(wrapper, mainMapping);
                         }
                     } catch (IllegalAccessException e) {
                         throw new IllegalStateException("Cannot get direct enchantment field for " + field, e);
@@ -216,6 +216,8 @@ public final class XEnchantment extends XModule<XEnchantment, Enchantment> {
                 }
             }
         }
+
+        REGISTRY.seal();
     }
 
     private XEnchantment(Enchantment enchantment, String[] names) {
@@ -259,7 +261,7 @@ public final class XEnchantment extends XModule<XEnchantment, Enchantment> {
             Enchantment enchantment = std.get();
             if (enchantment instanceof EnchantmentWrapper) {
                 Enchantment wrapped = ((EnchantmentWrapper) enchantment).getEnchantment();
-                REGISTRY.bukkitMapping().put(wrapped, std);
+                REGISTRY.registerBukkitForm(wrapped, std);
             }
         }
         return std;
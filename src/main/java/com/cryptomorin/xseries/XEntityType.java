@@ -197,6 +197,10 @@ public enum XEntityType implements XBase<XEntityType, EntityType> {
 
     public static final XRegistry<XEntityType, EntityType> REGISTRY = Data.REGISTRY;
 
+    static {
+        REGISTRY.seal();
+    }
+
     private static final class Data {
         public static final XRegistry<XEntityType, EntityType> REGISTRY =
                 new XRegistry<>(EntityType.class, XEntityType.class, XEntityType[]::new);
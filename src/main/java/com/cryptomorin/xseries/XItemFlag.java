@@ -131,6 +131,11 @@ public enum XItemFlag implements XBase<XItemFlag, ItemFlag> {
     HIDE_UNBREAKABLE;
 
     public static final XRegistry<XItemFlag, ItemFlag> REGISTRY = Data.REGISTRY;
+
+    static {
+        REGISTRY.seal();
+    }
+
     private static final ItemFlag[] BUKKIT_VALUES = ItemFlag.values();
 
     private final ItemFlag itemFlag;
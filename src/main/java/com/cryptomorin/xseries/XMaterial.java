@@ -21,11 +21,11 @@
  */
 package com.cryptomorin.xseries;
 
+import com.cryptomorin.xseries.base.NameNormalizer;
+import com.cryptomorin.xseries.base.NormalizedNameMap;
 import com.cryptomorin.xseries.base.XBase;
 import com.cryptomorin.xseries.base.annotations.XInfo;
 import com.google.common.base.Enums;
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
@@ -37,10 +37,12 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * <b>XMaterial</b> - Data Values/Pre-flattening<br>
@@ -1740,25 +1742,29 @@ public enum XMaterial implements XBase<XMaterial, Material> {
 
     /**
      * We don't want to use {@link Enums#getIfPresent(Class, String)} to avoid a few checks.
+     * Keys are {@link #format(String) formatted}, so this map can be queried with unformatted names as well.
      *
      * @since 5.1.0
      */
-    private static final Map<String, XMaterial> NAMES = new HashMap<>();
+    private static final NormalizedNameMap<XMaterial> NAMES = new NormalizedNameMap<>(NameNormalizer.ENUM, VALUES.length);
 
     /**
-     * Guava (Google Core Libraries for Java)'s cache for performance and timed caches.
-     * For strings that match a certain XMaterial. Mostly cached for configs.
+     * All the {@link #getLegacy() legacy names} mapped to the materials that use them.
+     * The materials are in the same order as {@link #VALUES}, so the first one is the
+     * material that should be used when the data value is unknown.
+     * <p>
+     * This index is complete, so a name that's not in this map doesn't match any material
+     * and there's no need to cache failed lookups separately.
      *
-     * @since 1.0.0
+     * @see #requestOldXMaterial(String, byte)
+     * @since 13.0.0
      */
-    private static final Cache<String, XMaterial> NAME_CACHE = CacheBuilder.newBuilder()
-            .expireAfterAccess(1, TimeUnit.HOURS)
-            .build();
+    private static final Map<String, XMaterial[]> LEGACY_NAMES = new HashMap<>();
     /**
      * The maximum data value in the pre-flattening update which belongs to {@link #VILLAGER_SPAWN_EGG}<br>
      * <a href="https://minecraftitemids.com/types/spawn-egg">Spawn Eggs</a>
      *
-     * @see #matchXMaterialWithData(String)
+     * @see #matchXMaterialWithData(String, int)
      * @since 8.0.0
      */
     private static final byte MAX_DATA_VALUE = 120;
@@ -1775,6 +1781,13 @@ public enum XMaterial implements XBase<XMaterial, Material> {
      * @since 8.1.0
      */
     private static final short MAX_ID = 2267;
+    /**
+     * The minimum number of distinct names that {@link #matchAll(Collection)} matches in parallel.
+     * Matching a single name takes less than a microsecond, so smaller batches don't benefit from it.
+     *
+     * @since 13.0.0
+     */
+    private static final int PARALLEL_MATCH_THRESHOLD = 4096;
     /**
      * <b>XMaterial Paradox (Duplication Check)</b>
      * <p>
@@ -1792,6 +1805,23 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         for (XMaterial material : VALUES) NAMES.put(material.name(), material);
     }
 
+    static {
+        for (XMaterial material : VALUES) {
+            for (String legacy : material.legacy) {
+                XMaterial[] materials = LEGACY_NAMES.get(legacy);
+                if (materials == null) {
+                    materials = new XMaterial[]{material};
+                } else {
+                    // Some materials have the same legacy name more than once.
+                    if (materials[materials.length - 1] == material) continue;
+                    materials = Arrays.copyOf(materials, materials.length + 1);
+                    materials[materials.length - 1] = material;
+                }
+                LEGACY_NAMES.put(legacy, materials);
+            }
+        }
+    }
+
     static {
         if (Data.ISFLAT) {
             // It's not needed at all if it's the newer version. We can save some memory.
@@ -1849,19 +1879,6 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         this(0, legacy);
     }
 
-    /**
-     * Gets the XMaterial with this name similar to {@link #valueOf(String)}
-     * without throwing an exception.
-     *
-     * @param name the name of the material.
-     * @return an optional that can be empty.
-     * @since 5.1.0
-     */
-    @NotNull
-    private static Optional<XMaterial> getIfPresent(@NotNull String name) {
-        return Optional.ofNullable(NAMES.get(name));
-    }
-
     /**
      * The current version of the server.
      *
@@ -1875,25 +1892,21 @@ public enum XMaterial implements XBase<XMaterial, Material> {
 
     /**
      * When using 1.13+, this helps to find the old material name
-     * with its data value using a cached search for optimization.
+     * with its data value using the {@link #LEGACY_NAMES} index.
      *
      * @see #matchDefinedXMaterial(String, byte)
      * @since 1.0.0
      */
     @Nullable
     private static XMaterial requestOldXMaterial(@NotNull String name, byte data) {
-        String holder = name + data;
-        XMaterial cache = NAME_CACHE.getIfPresent(holder);
-        if (cache != null) return cache;
+        // Not checking material.name().equals(name) is intended.
+        XMaterial[] materials = LEGACY_NAMES.get(name);
+        if (materials == null) return null;
+        if (data == UNKNOWN_DATA_VALUE) return materials[0];
 
-        for (XMaterial material : VALUES) {
-            // Not using material.name().equals(name) check is intended.
-            if ((data == UNKNOWN_DATA_VALUE || data == material.data) && material.anyMatchLegacy(name)) {
-                NAME_CACHE.put(holder, material);
-                return material;
-            }
+        for (XMaterial material : materials) {
+            if (material.data == data) return material;
         }
-
         return null;
     }
 
@@ -1908,44 +1921,125 @@ public enum XMaterial implements XBase<XMaterial, Material> {
      *     {@code WOOL: 14  -> RED_WOOL}
      * </pre>
      *
-     * @param name the material string that consists of the material name, data and separator character.
+     * @param name  the material string that consists of the material name, data and separator character.
+     * @param index the index of the separator character.
      * @return the parsed XMaterial.
      * @see #matchXMaterial(String)
      * @since 3.0.0
      */
     @Nullable
-    private static Optional<XMaterial> matchXMaterialWithData(@NotNull String name) {
-        int index = name.indexOf(':');
-        if (index != -1) {
-            String mat = format(name.substring(0, index));
-            try {
-                // We don't use Byte.parseByte because we have our own range check.
-                byte data = (byte) Integer.parseInt(name.substring(index + 1).replace(" ", ""));
-                return data >= 0 && data < MAX_DATA_VALUE ? matchDefinedXMaterial(mat, data) : matchDefinedXMaterial(mat, UNKNOWN_DATA_VALUE);
-            } catch (NumberFormatException ignored) {
-                return Optional.empty();
-            }
+    private static XMaterial matchXMaterialWithData(@NotNull String name, int index) {
+        String mat = format(name.substring(0, index));
+        try {
+            // We don't use Byte.parseByte because we have our own range check.
+            byte data = (byte) Integer.parseInt(name.substring(index + 1).replace(" ", ""));
+            return data >= 0 && data < MAX_DATA_VALUE ? matchDefined(mat, data) : matchDefined(mat, UNKNOWN_DATA_VALUE);
+        } catch (NumberFormatException ignored) {
+            return null;
         }
-
-        // noinspection OptionalAssignedToNull
-        return null;
     }
 
     /**
      * Parses the given material name as an XMaterial with a given data
-     * value in the string if attached. Check {@link #matchXMaterialWithData(String)} for more info.
+     * value in the string if attached. Check {@link #matchXMaterialWithData(String, int)} for more info.
      *
-     * @see #matchXMaterialWithData(String)
+     * @see #matchXMaterialWithData(String, int)
      * @see #matchDefinedXMaterial(String, byte)
+     * @see #matchAll(Collection)
      * @since 2.0.0
      */
-    @SuppressWarnings("OptionalAssignedToNull")
     @NotNull
     public static Optional<XMaterial> matchXMaterial(@NotNull String name) {
         if (name == null)
             throw new IllegalArgumentException("Cannot match a material with null string");
-        Optional<XMaterial> oldMatch = matchXMaterialWithData(name);
-        return oldMatch != null ? oldMatch : matchDefinedXMaterial(format(name), UNKNOWN_DATA_VALUE);
+        return Optional.ofNullable(matchName(name));
+    }
+
+    @Nullable
+    private static XMaterial matchName(@NotNull String name) {
+        int index = name.indexOf(':');
+        if (index != -1) return matchXMaterialWithData(name, index);
+
+        // The same result as matchDefined(format(name), UNKNOWN_DATA_VALUE)
+        // without creating the formatted string for the most common case.
+        if (Data.ISFLAT) {
+            XMaterial material = NAMES.find(name);
+            if (material != null) return material;
+        }
+
+        return matchDefined(format(name), UNKNOWN_DATA_VALUE);
+    }
+
+    /**
+     * Matches all the given material names at once. This is a lot faster than calling
+     * {@link #matchXMaterial(String)} for each name when loading large configs.
+     * <p>
+     * Repeated names are only matched once, and if there are more than {@link #PARALLEL_MATCH_THRESHOLD}
+     * distinct names, they're matched in parallel using the common {@link java.util.concurrent.ForkJoinPool}.
+     *
+     * @param names the material names to match, each one in any format supported by {@link #matchXMaterial(String)}
+     * @return a list of the matched materials in the same order as the given names.
+     * Names that couldn't be matched are {@code null} in this list.
+     * @see #matchAll(Stream)
+     * @since 13.0.0
+     */
+    @NotNull
+    public static List<XMaterial> matchAll(@NotNull Collection<String> names) {
+        Objects.requireNonNull(names, "Cannot match null collection of material names");
+
+        int size = names.size();
+        String[] unique = new String[size];
+        int[] positions = new int[size];
+        Map<String, Integer> indexes = new HashMap<>(size);
+        int uniqueCount = 0;
+        int i = 0;
+
+        for (String name : names) {
+            if (name == null)
+                throw new IllegalArgumentException("Cannot match a material with null string at index " + i);
+            Integer index = indexes.get(name);
+            if (index == null) {
+                index = uniqueCount;
+                unique[uniqueCount++] = name;
+                indexes.put(name, index);
+            }
+            positions[i++] = index;
+        }
+
+        XMaterial[] matched = new XMaterial[uniqueCount];
+        if (uniqueCount >= PARALLEL_MATCH_THRESHOLD) {
+            // Each task writes to its own index. forEach() returns after all the tasks are done.
+            IntStream.range(0, uniqueCount).parallel().forEach(j -> matched[j] = matchName(unique[j]));
+        } else {
+            for (int j = 0; j < uniqueCount; j++) {
+                matched[j] = matchName(unique[j]);
+            }
+        }
+
+        XMaterial[] results = new XMaterial[size];
+        for (int j = 0; j < size; j++) {
+            results[j] = matched[positions[j]];
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Lazily matches the given material names with the same rules as {@link #matchAll(Collection)}.
+     * The order of the stream is kept, and it can be used as a parallel stream as well.
+     *
+     * @param names the material names to match.
+     * @return a stream of the matched materials. Names that couldn't be matched are {@code null} in this stream.
+     * @since 13.0.0
+     */
+    @NotNull
+    public static Stream<XMaterial> matchAll(@NotNull Stream<String> names) {
+        Objects.requireNonNull(names, "Cannot match null stream of material names");
+        // Optional is only used to cache unknown names as well, so it's created once per distinct name.
+        Map<String, Optional<XMaterial>> cache = new ConcurrentHashMap<>();
+        return names.map(name -> {
+            if (name == null) throw new IllegalArgumentException("Cannot match a material with null string");
+            return cache.computeIfAbsent(name, XMaterial::matchXMaterial).orElse(null);
+        });
     }
 
     /**
@@ -1959,8 +2053,10 @@ public enum XMaterial implements XBase<XMaterial, Material> {
     @NotNull
     public static XMaterial matchXMaterial(@NotNull Material material) {
         Objects.requireNonNull(material, "Cannot match null material");
-        return matchDefinedXMaterial(material.name(), UNKNOWN_DATA_VALUE)
-                .orElseThrow(() -> new IllegalArgumentException("Unsupported material with no data value: " + material.name()));
+        XMaterial xMaterial = matchDefined(material.name(), UNKNOWN_DATA_VALUE);
+        if (xMaterial == null)
+            throw new IllegalArgumentException("Unsupported material with no data value: " + material.name());
+        return xMaterial;
     }
 
     /**
@@ -2021,8 +2117,8 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         // if (!Data.ISFLAT && item.hasItemMeta() && item.getItemMeta() instanceof org.bukkit.inventory.meta.MapMeta) return FILLED_MAP;
 
         // No orElseThrow, I don't want to deal with Java's final variable bullshit.
-        Optional<XMaterial> result = matchDefinedXMaterial(material, data);
-        if (result.isPresent()) return result.get();
+        XMaterial result = matchDefined(material, data);
+        if (result != null) return result;
         throw new IllegalArgumentException("Unsupported material from item: " + material + " (" + data + ')');
     }
 
@@ -2037,24 +2133,32 @@ public enum XMaterial implements XBase<XMaterial, Material> {
      * @see #matchXMaterial(ItemStack)
      * @since 3.0.0
      */
-    @SuppressWarnings({"DanglingJavadoc", "JavadocBlankLines"})
     @NotNull
     protected static Optional<XMaterial> matchDefinedXMaterial(@NotNull String name, byte data) {
+        return Optional.ofNullable(matchDefined(name, data));
+    }
+
+    /**
+     * @see #matchDefinedXMaterial(String, byte)
+     */
+    @SuppressWarnings({"DanglingJavadoc", "JavadocBlankLines"})
+    @Nullable
+    private static XMaterial matchDefined(@NotNull String name, byte data) {
         // if (!Boolean.valueOf(Boolean.getBoolean(Boolean.TRUE.toString())).equals(Boolean.FALSE.booleanValue())) return null;
         Boolean duplicated = null;
         boolean isAMap = name.equalsIgnoreCase("MAP");
 
         // Do basic number and boolean checks before accessing more complex enum stuff.
         if (Data.ISFLAT || (!isAMap && data <= 0 && !(duplicated = isDuplicated(name)))) {
-            Optional<XMaterial> xMaterial = getIfPresent(name);
-            if (xMaterial.isPresent()) return xMaterial;
+            XMaterial xMaterial = NAMES.find(name);
+            if (xMaterial != null) return xMaterial;
         }
         // Usually flat versions wouldn't pass this point, but some special materials do.
 
         XMaterial oldXMaterial = requestOldXMaterial(name, data);
         if (oldXMaterial == null) {
             // Special case. Refer to FILLED_MAP for more info.
-            return (data >= 0 && isAMap) ? Optional.of(FILLED_MAP) : Optional.empty();
+            return (data >= 0 && isAMap) ? FILLED_MAP : null;
         }
 
         /**
@@ -2075,48 +2179,22 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         boolean isPlural = oldXMaterial == CARROTS || oldXMaterial == POTATOES || oldXMaterial == BRICKS;
 
         if (!Data.ISFLAT && isPlural && (duplicated == null ? isDuplicated(name) : duplicated))
-            return getIfPresent(name);
-        return Optional.of(oldXMaterial);
+            return NAMES.find(name);
+        return oldXMaterial;
     }
 
     /**
      * Attempts to build the string like an enum name.
      * Removes all the spaces, and extra non-English characters. Also removes some config/in-game based strings.
-     * While this method is hard to maintain, it's extremely efficient. It's approximately more than x5 times faster than
-     * the normal RegEx + String Methods approach for both formatted and unformatted material names.
      *
      * @param name the material name to modify.
      * @return an enum name.
+     * @see NameNormalizer#ENUM
      * @since 2.0.0
      */
     @NotNull
     protected static String format(@NotNull String name) {
-        int len = name.length();
-        char[] chs = new char[len];
-        int count = 0;
-        boolean appendUnderline = false;
-
-        for (int i = 0; i < len; i++) {
-            char ch = name.charAt(i);
-
-            if (!appendUnderline && count != 0 && (ch == '-' || ch == ' ' || ch == '_') && chs[count] != '_')
-                appendUnderline = true;
-            else {
-                boolean number = false;
-                // Old materials have numbers in them.
-                if ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z') || (number = (ch >= '0' && ch <= '9'))) {
-                    if (appendUnderline) {
-                        chs[count++] = '_';
-                        appendUnderline = false;
-                    }
-
-                    if (number) chs[count++] = ch;
-                    else chs[count++] = (char) (ch & 0x5f);
-                }
-            }
-        }
-
-        return new String(chs, 0, count);
+        return NameNormalizer.ENUM.normalize(name);
     }
 
     /**
@@ -2162,21 +2240,6 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         return item;
     }
 
-    /**
-     * Checks if the given material name matches any of this xmaterial's legacy material names.
-     * All the values passed to this method will not be null or empty and are formatted correctly.
-     *
-     * @param name the material name to check.
-     * @return true if it's one of the legacy names, otherwise false.
-     * @since 2.0.0
-     */
-    private boolean anyMatchLegacy(@NotNull String name) {
-        for (int i = this.legacy.length - 1; i >= 0; i--) {
-            if (name.equals(this.legacy[i])) return true;
-        }
-        return false;
-    }
-
     /**
      * Parses an enum name to a user-friendly name.
      * These names will have underlines removed and with each word capitalized.
@@ -2297,6 +2360,37 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         return material;
     }
 
+    /**
+     * Precomputed properties of materials that can be checked with {@link #hasProperty(Property)}.
+     *
+     * @since 13.0.0
+     */
+    public enum Property {
+        /**
+         * @see XTag#isItem(XMaterial)
+         */
+        ITEM,
+        /**
+         * @see XTag#isInteractable(XMaterial)
+         */
+        INTERACTABLE;
+
+        private final int bit = 1 << ordinal();
+    }
+
+    /**
+     * Checks a property of this material using a table that is computed once for all materials,
+     * which is a lot cheaper than the equivalent {@link XTag} methods for frequent checks.
+     * The table is only computed on the first call of this method.
+     *
+     * @param property the property to check.
+     * @return true if this material has the property.
+     * @since 13.0.0
+     */
+    public boolean hasProperty(@NotNull Property property) {
+        return (PropertyTable.TABLE[this.ordinal()] & property.bit) != 0;
+    }
+
     /**
      * <b>XMaterial Paradox (Duplication Check)</b>
      * Checks if the material has any duplicates.
@@ -2353,6 +2447,23 @@ public enum XMaterial implements XBase<XMaterial, Material> {
         }
     }
 
+    /**
+     * Holds the {@link Property} bits of every material, indexed by their ordinal.
+     * This is separate from {@link XMaterial} so the table is only computed when it's needed.
+     */
+    private static final class PropertyTable {
+        private static final byte[] TABLE = new byte[VALUES.length];
+
+        static {
+            for (XMaterial material : VALUES) {
+                int bits = 0;
+                if (XTag.isItem0(material)) bits |= Property.ITEM.bit;
+                if (XTag.isInteractable0(material)) bits |= Property.INTERACTABLE.bit;
+                TABLE[material.ordinal()] = (byte) bits;
+            }
+        }
+    }
+
     /**
      * Used for data that need to be accessed during enum initialization.
      *
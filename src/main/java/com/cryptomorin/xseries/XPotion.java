@@ -152,6 +152,11 @@ public enum XPotion implements XBase<XPotion, PotionEffectType> {
     }
 
     public static final XRegistry<XPotion, PotionEffectType> REGISTRY = Data.REGISTRY;
+
+    static {
+        REGISTRY.seal();
+    }
+
     private final PotionEffectType potionEffectType;
     private final PotionType potionType;
 
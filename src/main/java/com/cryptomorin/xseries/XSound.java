@@ -1748,6 +1748,10 @@ public final class XSound extends XModule<XSound, Sound> {
             ENTITY_PARROT_IMITATE_PANDA = std("ENTITY_PARROT_IMITATE_PANDA"),
             ENTITY_PARROT_IMITATE_ENDERMAN = std("ENTITY_PARROT_IMITATE_ENDERMAN");
 
+    static {
+        REGISTRY.seal();
+    }
+
     /**
      * A list of sounds that are labelled as <a href="https://minecraft.fandom.com/wiki/Music">"music"</a> (usually longer than 30 seconds)
      *
@@ -29,13 +29,17 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
  * A class used for grouping various things together based on a common trait.
- * This class is kind of memory-heavy and should not be initialized when not needed, on the other hand
- * if you're going to use this class, it's recommended to intialize it from before, since the startup
- * may take a while and cause a single lag spike.
+ * Tags of enum values such as {@link XMaterial} are stored as compact bitsets of their ordinals.
+ * <p>
+ * The values of each tag are only computed the first time the tag is used (including tags that are
+ * obtained from {@link #getTag(String)}), so initializing this class only creates the tag objects themselves.
+ * If you want to avoid computing a tag during a time-sensitive task, you can call {@link #getValues()} from before.
  * <p>
  * The main usage of this class is simply done by choosing your category and using {@link #isTagged(XBase)} or {@link #getValues()}:
  * <pre>{@code
@@ -1142,38 +1146,38 @@ public final class XTag<T extends XBase<?, ?>> {
     }
 
     static { // colorable
-        CANDLE_CAKES = TagBuilder.simple(findAllColors("CANDLE_CAKE"));
-        CANDLES = TagBuilder.simple(findAllColors("CANDLE"));
-        TERRACOTTA = TagBuilder.simple(findAllColors("TERRACOTTA"));
-        GLAZED_TERRACOTTA = TagBuilder.simple(findAllColors("GLAZED_TERRACOTTA"));
-        SHULKER_BOXES = TagBuilder.simple(findAllColors("SHULKER_BOX"));
-        CARPETS = TagBuilder.simple(findAllColors("CARPET"));
-        WOOL = TagBuilder.simple(findAllColors("WOOL"));
-        GLASS = TagBuilder.of(findAllColors("GLASS"))
+        CANDLE_CAKES = TagBuilder.simple(() -> findAllColors("CANDLE_CAKE"));
+        CANDLES = TagBuilder.simple(() -> findAllColors("CANDLE"));
+        TERRACOTTA = TagBuilder.simple(() -> findAllColors("TERRACOTTA"));
+        GLAZED_TERRACOTTA = TagBuilder.simple(() -> findAllColors("GLAZED_TERRACOTTA"));
+        SHULKER_BOXES = TagBuilder.simple(() -> findAllColors("SHULKER_BOX"));
+        CARPETS = TagBuilder.simple(() -> findAllColors("CARPET"));
+        WOOL = TagBuilder.simple(() -> findAllColors("WOOL"));
+        GLASS = TagBuilder.of(() -> findAllColors("GLASS"))
                 .inheritFrom(TagBuilder.simple(XMaterial.TINTED_GLASS))
                 .build();
-        ITEMS_BANNERS = TagBuilder.simple(findAllColors("BANNER"));
-        WALL_BANNERS = TagBuilder.simple(findAllColors("WALL_BANNER"));
+        ITEMS_BANNERS = TagBuilder.simple(() -> findAllColors("BANNER"));
+        WALL_BANNERS = TagBuilder.simple(() -> findAllColors("WALL_BANNER"));
         BANNERS = TagBuilder.simple(ITEMS_BANNERS, WALL_BANNERS);
-        BEDS = TagBuilder.simple(findAllColors("BED"));
-        CONCRETE = TagBuilder.simple(findAllColors("CONCRETE"));
-        CONCRETE_POWDER = TagBuilder.simple(findAllColors("CONCRETE_POWDER"));
+        BEDS = TagBuilder.simple(() -> findAllColors("BED"));
+        CONCRETE = TagBuilder.simple(() -> findAllColors("CONCRETE"));
+        CONCRETE_POWDER = TagBuilder.simple(() -> findAllColors("CONCRETE_POWDER"));
     }
 
     static { // wooded material
-        STANDING_SIGNS = TagBuilder.simple(findAllWoodTypes("SIGN"));
-        WALL_SIGNS = TagBuilder.simple(findAllWoodTypes("WALL_SIGN"));
-        WALL_HANGING_SIGNS = TagBuilder.simple(findAllWoodTypes("WALL_HANGING_SIGN"));
-        HANGING_SIGNS = TagBuilder.simple(findAllWoodTypes("HANGING_SIGN"));
-        WOODEN_PRESSURE_PLATES = TagBuilder.simple(findAllWoodTypes("PRESSURE_PLATE"));
-        WOODEN_DOORS = TagBuilder.simple(findAllWoodTypes("DOOR"));
-        WOODEN_FENCE_GATES = TagBuilder.simple(findAllWoodTypes("FENCE_GATE"));
-        WOODEN_FENCES = TagBuilder.simple(findAllWoodTypes("FENCE"));
-        WOODEN_SLABS = TagBuilder.simple(findAllWoodTypes("SLAB"));
-        WOODEN_STAIRS = TagBuilder.simple(findAllWoodTypes("STAIRS"));
-        WOODEN_TRAPDOORS = TagBuilder.simple(findAllWoodTypes("TRAPDOOR"));
-        PLANKS = TagBuilder.simple(findAllWoodTypes("PLANKS"));
-        WOODEN_BUTTONS = TagBuilder.simple(findAllWoodTypes("BUTTON"));
+        STANDING_SIGNS = TagBuilder.simple(() -> findAllWoodTypes("SIGN"));
+        WALL_SIGNS = TagBuilder.simple(() -> findAllWoodTypes("WALL_SIGN"));
+        WALL_HANGING_SIGNS = TagBuilder.simple(() -> findAllWoodTypes("WALL_HANGING_SIGN"));
+        HANGING_SIGNS = TagBuilder.simple(() -> findAllWoodTypes("HANGING_SIGN"));
+        WOODEN_PRESSURE_PLATES = TagBuilder.simple(() -> findAllWoodTypes("PRESSURE_PLATE"));
+        WOODEN_DOORS = TagBuilder.simple(() -> findAllWoodTypes("DOOR"));
+        WOODEN_FENCE_GATES = TagBuilder.simple(() -> findAllWoodTypes("FENCE_GATE"));
+        WOODEN_FENCES = TagBuilder.simple(() -> findAllWoodTypes("FENCE"));
+        WOODEN_SLABS = TagBuilder.simple(() -> findAllWoodTypes("SLAB"));
+        WOODEN_STAIRS = TagBuilder.simple(() -> findAllWoodTypes("STAIRS"));
+        WOODEN_TRAPDOORS = TagBuilder.simple(() -> findAllWoodTypes("TRAPDOOR"));
+        PLANKS = TagBuilder.simple(() -> findAllWoodTypes("PLANKS"));
+        WOODEN_BUTTONS = TagBuilder.simple(() -> findAllWoodTypes("BUTTON"));
     }
 
     static { // ores
@@ -1193,14 +1197,14 @@ public final class XTag<T extends XBase<?, ?>> {
     }
 
     static { // corals
-        ALIVE_CORAL_WALL_FANS = TagBuilder.simple(findAllCorals(true, false, true, true));
-        ALIVE_CORAL_FANS = TagBuilder.simple(findAllCorals(true, false, true, false));
-        ALIVE_CORAL_BLOCKS = TagBuilder.simple(findAllCorals(true, true, false, false));
-        ALIVE_CORAL_PLANTS = TagBuilder.simple(findAllCorals(true, false, false, false));
-        DEAD_CORAL_WALL_FANS = TagBuilder.simple(findAllCorals(false, false, true, true));
-        DEAD_CORAL_FANS = TagBuilder.simple(findAllCorals(false, false, true, false));
-        DEAD_CORAL_BLOCKS = TagBuilder.simple(findAllCorals(false, true, false, false));
-        DEAD_CORAL_PLANTS = TagBuilder.simple(findAllCorals(false, false, false, false));
+        ALIVE_CORAL_WALL_FANS = TagBuilder.simple(() -> findAllCorals(true, false, true, true));
+        ALIVE_CORAL_FANS = TagBuilder.simple(() -> findAllCorals(true, false, true, false));
+        ALIVE_CORAL_BLOCKS = TagBuilder.simple(() -> findAllCorals(true, true, false, false));
+        ALIVE_CORAL_PLANTS = TagBuilder.simple(() -> findAllCorals(true, false, false, false));
+        DEAD_CORAL_WALL_FANS = TagBuilder.simple(() -> findAllCorals(false, false, true, true));
+        DEAD_CORAL_FANS = TagBuilder.simple(() -> findAllCorals(false, false, true, false));
+        DEAD_CORAL_BLOCKS = TagBuilder.simple(() -> findAllCorals(false, true, false, false));
+        DEAD_CORAL_PLANTS = TagBuilder.simple(() -> findAllCorals(false, false, false, false));
         CORAL_FANS = TagBuilder.simple(ALIVE_CORAL_FANS, ALIVE_CORAL_WALL_FANS, DEAD_CORAL_WALL_FANS, DEAD_CORAL_FANS);
 
         CORALS = TagBuilder.simple(
@@ -1223,7 +1227,7 @@ public final class XTag<T extends XBase<?, ?>> {
 
     static {
         WALL_HEADS = TagBuilder.simple(
-                TagBuilder.simple(findMaterialsEndingWith("WALL_HEAD")),
+                TagBuilder.simple(() -> findMaterialsEndingWith("WALL_HEAD")),
                 TagBuilder.simple(XMaterial.WITHER_SKELETON_WALL_SKULL, XMaterial.SKELETON_WALL_SKULL)
         );
 
@@ -2443,11 +2447,54 @@ public final class XTag<T extends XBase<?, ?>> {
                 ).build();
     }
 
+    /**
+     * Computed lazily by {@link #resolve()} from the {@link #supplier}.
+     */
+    @Nullable
+    private volatile Set<T> values;
+    @Nullable
+    private Supplier<Set<T>> supplier;
+
+    /**
+     * The enum class and the ordinal bitset of {@link #values} if this is a tag of enum values.
+     * These are used directly by {@link #isTagged(XBase)} instead of going through {@link Set#contains(Object)}.
+     * Both are set before {@link #values} is written, so they're visible after reading it.
+     */
+    @Nullable
+    private Class<?> enumClass;
+    @Nullable
+    private long[] ordinals;
+
+    private XTag(@NotNull Supplier<Set<T>> supplier) {
+        this.supplier = supplier;
+    }
+
     @NotNull
-    private final Set<T> values;
+    private Set<T> values() {
+        Set<T> values = this.values;
+        return values != null ? values : resolve();
+    }
+
+    /**
+     * Tags only depend on the tags that were declared before them, so
+     * resolving other tags while holding this lock cannot cause a deadlock.
+     */
+    @SuppressWarnings("unchecked")
+    @NotNull
+    private synchronized Set<T> resolve() {
+        Set<T> values = this.values;
+        if (values != null) return values;
+
+        values = supplier.get();
+        if (values instanceof OrdinalSet) {
+            OrdinalSet<T> ordinalSet = (OrdinalSet<T>) values;
+            this.enumClass = ordinalSet.enumClass;
+            this.ordinals = ordinalSet.words;
+        }
 
-    private XTag(@NotNull Set<T> values) {
+        this.supplier = null;
         this.values = values;
+        return values;
     }
 
     public static <E> List<Matcher<E>> stringMatcher(@Nullable Collection<String> elements) {
@@ -2512,7 +2559,8 @@ public final class XTag<T extends XBase<?, ?>> {
                 comp = XMaterial.format(comp.substring(4));
                 Optional<XTag<?>> tag = getTag(comp);
                 if (tag.isPresent()) matchers.add(new Matcher.XTagMatcher(tag.get()));
-                else errors.add(new Matcher.Error("Cannot find tag: " + comp, "TAG"));
+                else if (errors != null) errors.add(new Matcher.Error("Cannot find tag: " + comp, "TAG"));
+                continue;
             }
 
             matchers.add(new Matcher.TextMatcher<>(comp, false));
@@ -2521,12 +2569,29 @@ public final class XTag<T extends XBase<?, ?>> {
         return matchers;
     }
 
+    /**
+     * Same as {@link #stringMatcher(Collection, Collection)}, but merges all the matchers into a single
+     * {@link Matcher.CompiledMatcher} which is much faster to check against when there are many entries.
+     *
+     * @param memoize whether to cache the result for each value that is checked.
+     *                Only use this for a limited set of values such as {@link XMaterial}.
+     * @see Matcher.CompiledMatcher#compile(Collection, boolean)
+     */
+    public static <E> Matcher.CompiledMatcher<E> compiledStringMatcher(@Nullable Collection<String> elements,
+                                                                       @Nullable Collection<Matcher.Error> errors,
+                                                                       boolean memoize) {
+        return Matcher.CompiledMatcher.compile(stringMatcher(elements, errors), memoize);
+    }
+
     public static <T> boolean anyMatchString(T target, Collection<String> matchers) {
         return anyMatch(target, stringMatcher(matchers));
     }
 
     public static <T> boolean anyMatch(T target, Collection<Matcher<T>> matchers) {
-        return matchers.stream().anyMatch(x -> x.matches(target));
+        for (Matcher<T> matcher : matchers) {
+            if (matcher.matches(target)) return true;
+        }
+        return false;
     }
 
     public abstract static class Matcher<T> {
@@ -2588,6 +2653,221 @@ public final class XTag<T extends XBase<?, ?>> {
                 return matcher.isTagged(object);
             }
         }
+
+        private static String nameOf(Object object) {
+            return object instanceof Enum ? ((Enum<?>) object).name() : object.toString();
+        }
+
+        /**
+         * Merges a list of matchers so that the result is the same as {@link #anyMatch(Object, Collection)}:
+         * <ul>
+         *     <li>Exact names are checked with a single hash lookup.</li>
+         *     <li>All {@code CONTAINS} texts are checked in a single pass over the name.</li>
+         *     <li>Tags of the same enum are merged into a single bitset of their ordinals.</li>
+         * </ul>
+         * Regex and other matchers are still checked one by one.
+         */
+        public static final class CompiledMatcher<T> extends Matcher<T> {
+            private final Set<String> exact;
+            @Nullable
+            private final ContainsAutomaton contains;
+            private final Class<?>[] tagClasses;
+            private final long[][] tagOrdinals;
+            private final Set<Object> tagValues;
+            private final Matcher<T>[] others;
+            @Nullable
+            private final Map<T, Boolean> memo;
+
+            @SuppressWarnings("unchecked")
+            private CompiledMatcher(Set<String> exact, @Nullable ContainsAutomaton contains,
+                                    Map<Class<?>, long[]> tagOrdinals, Set<Object> tagValues,
+                                    List<Matcher<T>> others, boolean memoize) {
+                this.exact = exact;
+                this.contains = contains;
+                this.tagClasses = tagOrdinals.keySet().toArray(new Class<?>[0]);
+                this.tagOrdinals = tagOrdinals.values().toArray(new long[0][]);
+                this.tagValues = tagValues;
+                this.others = others.toArray(new Matcher[0]);
+                this.memo = memoize ? new ConcurrentHashMap<>() : null;
+            }
+
+            @SuppressWarnings("unchecked")
+            public static <T> CompiledMatcher<T> compile(@NotNull Collection<? extends Matcher<T>> matchers, boolean memoize) {
+                Set<String> exact = new HashSet<>();
+                List<String> contains = new ArrayList<>();
+                Map<Class<?>, long[]> tagOrdinals = new IdentityHashMap<>(1);
+                Set<Object> tagValues = Collections.newSetFromMap(new IdentityHashMap<>());
+                List<Matcher<T>> others = new ArrayList<>();
+
+                for (Matcher<T> matcher : matchers) {
+                    if (matcher instanceof TextMatcher) {
+                        TextMatcher<T> text = (TextMatcher<T>) matcher;
+                        if (text.contains) contains.add(text.text);
+                        else exact.add(text.text);
+                    } else if (matcher instanceof XTagMatcher) {
+                        XTag<?> tag = ((XTagMatcher<?>) matcher).matcher;
+                        Set<?> values = tag.values();
+                        if (values instanceof OrdinalSet) {
+                            OrdinalSet<?> ordinalSet = (OrdinalSet<?>) values;
+                            long[] union = tagOrdinals.computeIfAbsent(ordinalSet.enumClass, OrdinalSet::allocate);
+                            for (int i = 0; i < union.length; i++) union[i] |= ordinalSet.words[i];
+                        } else {
+                            tagValues.addAll(values);
+                        }
+                    } else if (matcher instanceof CompiledMatcher) {
+                        throw new IllegalArgumentException("Matcher is already compiled: " + matcher);
+                    } else {
+                        others.add(matcher);
+                    }
+                }
+
+                return new CompiledMatcher<>(exact, contains.isEmpty() ? null : new ContainsAutomaton(contains),
+                        tagOrdinals, tagValues, others, memoize);
+            }
+
+            @Override
+            public boolean matches(T object) {
+                if (object == null) return false;
+                if (memo == null) return matches0(object);
+
+                Boolean cached = memo.get(object);
+                if (cached != null) return cached;
+
+                boolean matches = matches0(object);
+                memo.put(object, matches);
+                return matches;
+            }
+
+            private boolean matches0(T object) {
+                if (object instanceof Enum) {
+                    Enum<?> element = (Enum<?>) object;
+                    Class<?> enumClass = element.getDeclaringClass();
+                    for (int i = 0; i < tagClasses.length; i++) {
+                        if (tagClasses[i] == enumClass) {
+                            int ordinal = element.ordinal();
+                            if ((tagOrdinals[i][ordinal >>> 6] & (1L << ordinal)) != 0) return true;
+                            break;
+                        }
+                    }
+                }
+                // Enum tags that aren't backed by an OrdinalSet are compiled into tagValues too.
+                if (!tagValues.isEmpty() && tagValues.contains(object)) return true;
+
+                String name = nameOf(object);
+                if (exact.contains(name)) return true;
+                if (contains != null && contains.containedIn(name)) return true;
+
+                for (Matcher<T> matcher : others) {
+                    if (matcher.matches(object)) return true;
+                }
+                return false;
+            }
+        }
+
+        /**
+         * An <a href="https://en.wikipedia.org/wiki/Aho%E2%80%93Corasick_algorithm">Aho-Corasick</a> automaton
+         * compiled into a transition table, used to check whether a name contains any of the given texts.
+         */
+        private static final class ContainsAutomaton {
+            /**
+             * Maps each character used by the texts to a column of {@link #transitions}, or {@code -1}.
+             */
+            private final int[] alphabet;
+            private final int[][] transitions;
+            private final boolean[] accepting;
+
+            private ContainsAutomaton(List<String> texts) {
+                char maxChar = 0;
+                for (String text : texts) {
+                    for (int i = 0; i < text.length(); i++) maxChar = (char) Math.max(maxChar, text.charAt(i));
+                }
+
+                int[] alphabet = new int[maxChar + 1];
+                Arrays.fill(alphabet, -1);
+                int symbols = 0;
+                for (String text : texts) {
+                    for (int i = 0; i < text.length(); i++) {
+                        char ch = text.charAt(i);
+                        if (alphabet[ch] == -1) alphabet[ch] = symbols++;
+                    }
+                }
+
+                // Build the trie. State 0 is the root.
+                List<int[]> trie = new ArrayList<>();
+                List<Boolean> accepting = new ArrayList<>();
+                trie.add(newState(symbols));
+                accepting.add(false);
+                for (String text : texts) {
+                    int state = 0;
+                    for (int i = 0; i < text.length(); i++) {
+                        int symbol = alphabet[text.charAt(i)];
+                        int next = trie.get(state)[symbol];
+                        if (next == -1) {
+                            next = trie.size();
+                            trie.get(state)[symbol] = next;
+                            trie.add(newState(symbols));
+                            accepting.add(false);
+                        }
+                        state = next;
+                    }
+                    accepting.set(state, true);
+                }
+
+                // Turn the trie into a full transition table by following failure links in BFS order.
+                int[][] transitions = trie.toArray(new int[0][]);
+                boolean[] accepts = new boolean[transitions.length];
+                for (int i = 0; i < accepts.length; i++) accepts[i] = accepting.get(i);
+
+                int[] failure = new int[transitions.length];
+                int[] queue = new int[transitions.length];
+                int head = 0, tail = 0;
+                for (int symbol = 0; symbol < symbols; symbol++) {
+                    int next = transitions[0][symbol];
+                    if (next == -1) {
+                        transitions[0][symbol] = 0;
+                    } else {
+                        failure[next] = 0;
+                        queue[tail++] = next;
+                    }
+                }
+                while (head < tail) {
+                    int state = queue[head++];
+                    accepts[state] |= accepts[failure[state]];
+                    for (int symbol = 0; symbol < symbols; symbol++) {
+                        int next = transitions[state][symbol];
+                        if (next == -1) {
+                            transitions[state][symbol] = transitions[failure[state]][symbol];
+                        } else {
+                            failure[next] = transitions[failure[state]][symbol];
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+
+                this.alphabet = alphabet;
+                this.transitions = transitions;
+                this.accepting = accepts;
+            }
+
+            private static int[] newState(int symbols) {
+                int[] state = new int[symbols];
+                Arrays.fill(state, -1);
+                return state;
+            }
+
+            private boolean containedIn(String name) {
+                if (accepting[0]) return true; // An empty text is contained in everything.
+
+                int state = 0;
+                for (int i = 0; i < name.length(); i++) {
+                    char ch = name.charAt(i);
+                    int symbol = ch < alphabet.length ? alphabet[ch] : -1;
+                    state = symbol == -1 ? 0 : transitions[state][symbol];
+                    if (accepting[state]) return true;
+                }
+                return false;
+            }
+        }
     }
 
     private static XMaterial[] findAllColors(String material) {
@@ -2646,6 +2926,10 @@ public final class XTag<T extends XBase<?, ?>> {
      * @since 1.13
      */
     public static boolean isItem(XMaterial material) {
+        return material.hasProperty(XMaterial.Property.ITEM);
+    }
+
+    static boolean isItem0(XMaterial material) {
         if (XMaterial.supports(13)) {
             Material mat = material.get();
             return mat != null && mat.isItem();
@@ -2748,7 +3032,14 @@ public final class XTag<T extends XBase<?, ?>> {
      * @since 1.13
      */
     public static boolean isInteractable(XMaterial material) {
-        if (XMaterial.supports(13)) return material.get().isInteractable();
+        return material.hasProperty(XMaterial.Property.INTERACTABLE);
+    }
+
+    static boolean isInteractable0(XMaterial material) {
+        if (XMaterial.supports(13)) {
+            Material mat = material.get();
+            return mat != null && mat.isInteractable();
+        }
         switch (material) { // 1.12 materials only
             case ACACIA_BUTTON:
             case ACACIA_DOOR:
@@ -2910,33 +3201,124 @@ public final class XTag<T extends XBase<?, ?>> {
      */
     @NotNull
     public Set<T> getValues() {
-        return this.values;
+        return values();
     }
 
     public boolean isTagged(@Nullable T value) {
-        return value != null && this.values.contains(value);
+        if (value == null) return false;
+
+        Set<T> values = values();
+        long[] ordinals = this.ordinals;
+        if (ordinals == null) return values.contains(value);
+
+        // The class check is only needed for unchecked calls.
+        if (!(value instanceof Enum)) return false;
+        Enum<?> element = (Enum<?>) value;
+        int ordinal = element.ordinal();
+        return element.getDeclaringClass() == enumClass && (ordinals[ordinal >>> 6] & (1L << ordinal)) != 0;
     }
 
-    private static final class TagBuilder<T extends XBase<?, ?>> {
-        private final Set<T> values;
-
-        private TagBuilder(Collection<T> values) {
-            if (values.isEmpty()) {
-                this.values = Collections.newSetFromMap(new IdentityHashMap<>());
-            } else if (values.iterator().next() instanceof Enum) {
-                // this.values = EnumSet.copyOf((Collection<Enum>) values);
-
-                Iterator<T> iter = values.iterator();
-                T first = iter.next();
-
-                // noinspection unchecked,rawtypes
-                this.values = EnumSet.of((Enum) first);
-                while (iter.hasNext())
-                    this.values.add(iter.next());
-            } else {
-                this.values = Collections.newSetFromMap(new IdentityHashMap<>(values.size()));
-                this.values.addAll(values);
+    /**
+     * An unmodifiable set of enum values which is backed by a bitset of their ordinals.
+     * Unlike {@link EnumSet}, the bitset can be read directly by {@link #isTagged(XBase)} and
+     * combined word by word when tags inherit from each other.
+     * <p>
+     * A tag of {@link XMaterial} only needs a {@code long[27]} for all its values.
+     */
+    private static final class OrdinalSet<E> extends AbstractSet<E> {
+        /**
+         * Shared between all the tags, so they don't need to copy the values of the enum.
+         * This is not in {@link XTag} itself because the tags are created before its other static fields.
+         */
+        private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<Object[]>() {
+            @Override
+            protected Object[] computeValue(@NotNull Class<?> type) {
+                return type.getEnumConstants();
             }
+        };
+
+        private final Class<?> enumClass;
+        private final long[] words;
+        private final int size;
+
+        private OrdinalSet(Class<?> enumClass, long[] words) {
+            this.enumClass = enumClass;
+            this.words = words;
+
+            int size = 0;
+            for (long word : words) size += Long.bitCount(word);
+            this.size = size;
+        }
+
+        private static long[] allocate(Class<?> enumClass) {
+            return new long[(ENUM_CONSTANTS.get(enumClass).length + 63) >>> 6];
+        }
+
+        private static void add(long[] words, Object value) {
+            int ordinal = ((Enum<?>) value).ordinal();
+            words[ordinal >>> 6] |= 1L << ordinal;
+        }
+
+        @Override
+        public boolean contains(Object obj) {
+            if (!(obj instanceof Enum)) return false;
+            Enum<?> element = (Enum<?>) obj;
+            int ordinal = element.ordinal();
+            return element.getDeclaringClass() == enumClass && (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @NotNull
+        @Override
+        public Iterator<E> iterator() {
+            Object[] constants = ENUM_CONSTANTS.get(enumClass);
+            return new Iterator<E>() {
+                private int next = nextOrdinal(0);
+
+                private int nextOrdinal(int from) {
+                    int index = from >>> 6;
+                    if (index >= words.length) return -1;
+
+                    // Shifting by 'from' only uses its lowest 6 bits.
+                    long word = words[index] & (-1L << from);
+                    while (word == 0) {
+                        if (++index == words.length) return -1;
+                        word = words[index];
+                    }
+                    return (index << 6) + Long.numberOfTrailingZeros(word);
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != -1;
+                }
+
+                @SuppressWarnings("unchecked")
+                @Override
+                public E next() {
+                    if (next == -1) throw new NoSuchElementException();
+                    E element = (E) constants[next];
+                    next = nextOrdinal(next + 1);
+                    return element;
+                }
+            };
+        }
+    }
+
+    /**
+     * Collects the values and the inherited tags of a tag. Nothing is computed until
+     * the built tag is used for the first time.
+     */
+    private static final class TagBuilder<T extends XBase<?, ?>> {
+        private final Supplier<T[]> values;
+        private final List<XTag<T>> inherited = new ArrayList<>(0);
+
+        private TagBuilder(Supplier<T[]> values) {
+            this.values = values;
         }
 
         @SafeVarargs
@@ -2944,36 +3326,90 @@ public final class XTag<T extends XBase<?, ?>> {
             return of(values).build();
         }
 
+        private static <T extends XBase<?, ?>> XTag<T> simple(Supplier<T[]> values) {
+            return of(values).build();
+        }
+
+        @SuppressWarnings("unchecked")
         @SafeVarargs
         private static <T extends XBase<?, ?>> XTag<T> simple(XTag<T>... values) {
-            return new TagBuilder<>(Collections.singletonList(values[0].values.iterator().next()))
+            return new TagBuilder<T>(() -> (T[]) new XBase[0])
                     .inheritFrom(values)
                     .build();
         }
 
         @SafeVarargs
         private static <T extends XBase<?, ?>> TagBuilder<T> of(T... values) {
-            return new TagBuilder<>(Arrays.asList(values));
+            return new TagBuilder<>(() -> values);
+        }
+
+        private static <T extends XBase<?, ?>> TagBuilder<T> of(Supplier<T[]> values) {
+            return new TagBuilder<>(values);
         }
 
         @SafeVarargs
         private final TagBuilder<T> inheritFrom(@NotNull XTag<T>... values) {
-            for (XTag<T> value : values) {
-                this.values.addAll(value.values);
-            }
+            this.inherited.addAll(Arrays.asList(values));
             return this;
         }
 
         private XTag<T> build() {
-            return new XTag<>(Collections.unmodifiableSet(values));
+            return new XTag<>(this::buildValues);
+        }
+
+        @SuppressWarnings("unchecked")
+        private Set<T> buildValues() {
+            T[] values = this.values.get();
+
+            Class<?> enumClass = null;
+            if (values.length != 0) {
+                if (values[0] instanceof Enum) enumClass = ((Enum<?>) values[0]).getDeclaringClass();
+            } else if (!inherited.isEmpty()) {
+                Set<T> first = inherited.get(0).values();
+                if (first instanceof OrdinalSet) enumClass = ((OrdinalSet<T>) first).enumClass;
+            }
+
+            if (enumClass == null) {
+                Set<T> set = Collections.newSetFromMap(new IdentityHashMap<>(values.length));
+                set.addAll(Arrays.asList(values));
+                for (XTag<T> tag : inherited) set.addAll(tag.values());
+                return Collections.unmodifiableSet(set);
+            }
+
+            long[] ordinals = OrdinalSet.allocate(enumClass);
+            for (T value : values) OrdinalSet.add(ordinals, value);
+            for (XTag<T> tag : inherited) {
+                Set<T> set = tag.values();
+                if (set instanceof OrdinalSet && ((OrdinalSet<T>) set).enumClass == enumClass) {
+                    long[] words = ((OrdinalSet<T>) set).words;
+                    for (int i = 0; i < ordinals.length; i++) ordinals[i] |= words[i];
+                } else {
+                    for (T value : set) OrdinalSet.add(ordinals, value);
+                }
+            }
+            return new OrdinalSet<>(enumClass, ordinals);
         }
     }
 
     @SafeVarargs
     private final XTag<T> without(T... without) {
-        Set<T> newSet = new HashSet<>(this.values);
-        for (T value : without) newSet.remove(value);
-        return new XTag<>(newSet);
+        return new XTag<>(() -> {
+            Set<T> values = values();
+            if (values instanceof OrdinalSet) {
+                OrdinalSet<T> ordinalSet = (OrdinalSet<T>) values;
+                long[] words = ordinalSet.words.clone();
+                for (T value : without) {
+                    int ordinal = ((Enum<?>) value).ordinal();
+                    words[ordinal >>> 6] &= ~(1L << ordinal);
+                }
+                return new OrdinalSet<>(ordinalSet.enumClass, words);
+            }
+
+            Set<T> newSet = Collections.newSetFromMap(new IdentityHashMap<>(values.size()));
+            newSet.addAll(values);
+            for (T value : without) newSet.remove(value);
+            return Collections.unmodifiableSet(newSet);
+        });
     }
 
     private static final Map<String, XTag<?>> TAGS = new HashMap<>(30);
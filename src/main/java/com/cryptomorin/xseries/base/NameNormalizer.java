@@ -0,0 +1,189 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.base;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Normalizes names that are used to look up values from configs or commands.
+ * <p>
+ * Each normalizer is written as a single pass over the raw name that can either hash the normalized
+ * form, compare it to an already normalized string, or build it. This allows {@link NormalizedNameMap}
+ * to find values without creating a new string for every lookup.
+ * <p>
+ * The hash of a normalized name is always equal to {@link String#hashCode()} of its string form.
+ *
+ * @see NormalizedNameMap
+ */
+@ApiStatus.Internal
+public enum NameNormalizer {
+    /**
+     * Attempts to build the string like an enum name.<br>
+     * Removes all the spaces, and extra non-English characters. Also removes some config/in-game based strings.
+     * While this method is hard to maintain, it's extremely efficient. It's approximately more than x5 times faster than
+     * the normal RegEx + String Methods approach for both formatted and unformatted names.
+     * <p>
+     * <b>Examples</b>
+     * <pre>
+     *     {@literal diamond sword    -> DIAMOND_SWORD}
+     *     {@literal  -red--wool-     -> RED_WOOL}
+     *     {@literal ink sack #4      -> INK_SACK_4}
+     * </pre>
+     */
+    ENUM {
+        @Override
+        protected long process(CharSequence name, @Nullable CharSequence expected, @Nullable StringBuilder out) {
+            int len = name.length();
+            int count = 0;
+            int hash = 0;
+            boolean appendUnderline = false;
+
+            for (int i = 0; i < len; i++) {
+                char ch = name.charAt(i);
+
+                if (ch == '-' || ch == ' ' || ch == '_') {
+                    if (count != 0) appendUnderline = true;
+                    continue;
+                }
+
+                // Old materials and a few sounds have numbers in them.
+                boolean number = ch >= '0' && ch <= '9';
+                if (!number && !((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z'))) continue;
+
+                if (appendUnderline) {
+                    if (mismatch(expected, count, '_')) return MISMATCH;
+                    if (out != null) out.append('_');
+                    hash = 31 * hash + '_';
+                    count++;
+                    appendUnderline = false;
+                }
+
+                if (!number) ch = (char) (ch & 0x5f);
+                if (mismatch(expected, count, ch)) return MISMATCH;
+                if (out != null) out.append(ch);
+                hash = 31 * hash + ch;
+                count++;
+            }
+
+            return end(expected, count, hash);
+        }
+    },
+
+    /**
+     * Lowercases the name, removes the {@code minecraft:} namespace and replaces dots with underscores,
+     * so both enum-like names and namespaced keys of the same value are normalized to the same string.
+     * <p>
+     * <b>Examples</b>
+     * <pre>
+     *     {@literal AMBIENT_CAVE                  -> ambient_cave}
+     *     {@literal minecraft:block.anvil.hit     -> block_anvil_hit}
+     *     {@literal myplugin:custom.sound         -> myplugin:custom_sound}
+     * </pre>
+     */
+    NAMESPACE {
+        private static final String MINECRAFT_NAMESPACE = "minecraft:";
+
+        @Override
+        protected long process(CharSequence name, @Nullable CharSequence expected, @Nullable StringBuilder out) {
+            int len = name.length();
+            int start = hasMinecraftNamespace(name) ? MINECRAFT_NAMESPACE.length() : 0;
+            int count = 0;
+            int hash = 0;
+
+            for (int i = start; i < len; i++) {
+                char ch = lowercase(name.charAt(i));
+                if (ch == '.') ch = '_'; // This is very unlikely to cause a conflict.
+
+                if (mismatch(expected, count, ch)) return MISMATCH;
+                if (out != null) out.append(ch);
+                hash = 31 * hash + ch;
+                count++;
+            }
+
+            return end(expected, count, hash);
+        }
+
+        private boolean hasMinecraftNamespace(CharSequence name) {
+            int len = MINECRAFT_NAMESPACE.length();
+            if (name.length() < len) return false;
+
+            for (int i = 0; i < len; i++) {
+                if (lowercase(name.charAt(i)) != MINECRAFT_NAMESPACE.charAt(i)) return false;
+            }
+            return true;
+        }
+
+        private char lowercase(char ch) {
+            if (ch >= 'A' && ch <= 'Z') return (char) (ch + ('a' - 'A'));
+            if (ch < 128) return ch;
+            return Character.toLowerCase(ch);
+        }
+    };
+
+    /**
+     * Returned by {@link #process(CharSequence, CharSequence, StringBuilder)} when the
+     * normalized name doesn't match the expected string. Hashes are never negative longs.
+     */
+    protected static final long MISMATCH = -1L;
+
+    /**
+     * Normalizes the given name.
+     *
+     * @param name     the raw name.
+     * @param expected if not null, the normalized name will be compared against this string character by character.
+     * @param out      if not null, the normalized characters will be appended to this builder.
+     * @return the unsigned hash of the normalized name or {@link #MISMATCH} if it isn't equal to {@code expected}.
+     */
+    protected abstract long process(CharSequence name, @Nullable CharSequence expected, @Nullable StringBuilder out);
+
+    private static boolean mismatch(@Nullable CharSequence expected, int index, char ch) {
+        return expected != null && (index >= expected.length() || expected.charAt(index) != ch);
+    }
+
+    private static long end(@Nullable CharSequence expected, int count, int hash) {
+        if (expected != null && count != expected.length()) return MISMATCH;
+        return hash & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return the same value as {@link #normalize(CharSequence)}{@code .hashCode()} without creating the string.
+     */
+    public int hash(@NotNull CharSequence name) {
+        return (int) process(name, null, null);
+    }
+
+    /**
+     * Checks whether the given raw name is the same as an already normalized name.
+     */
+    public boolean matches(@NotNull CharSequence name, @NotNull CharSequence normalized) {
+        return process(name, normalized, null) != MISMATCH;
+    }
+
+    @NotNull
+    public String normalize(@NotNull CharSequence name) {
+        StringBuilder builder = new StringBuilder(name.length());
+        process(name, null, builder);
+        return builder.toString();
+    }
+}
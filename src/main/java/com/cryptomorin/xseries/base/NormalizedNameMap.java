@@ -0,0 +1,202 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.base;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * A map of normalized names that can be queried directly with raw names from configs.
+ * <p>
+ * All keys are normalized with the given {@link NameNormalizer} when they're added. Lookups
+ * hash the raw name while normalizing it and probe an open-addressing table (linear probing),
+ * so no intermediate string is created for either a hit or a miss.
+ * <p>
+ * This map doesn't support removal and is not thread-safe for writes.
+ * {@link XRegistry} only modifies copies of it before publishing them.
+ *
+ * @param <V> the type of the values.
+ */
+@ApiStatus.Internal
+public final class NormalizedNameMap<V> extends AbstractMap<String, V> {
+    private final NameNormalizer normalizer;
+    private String[] keys;
+    private int[] hashes;
+    private Object[] values;
+    private int size;
+
+    public NormalizedNameMap(@NotNull NameNormalizer normalizer, int expectedSize) {
+        this.normalizer = Objects.requireNonNull(normalizer, "Name normalizer cannot be null");
+        allocate(capacityFor(expectedSize));
+    }
+
+    public NormalizedNameMap(@NotNull NormalizedNameMap<V> other) {
+        this.normalizer = other.normalizer;
+        this.keys = other.keys.clone();
+        this.hashes = other.hashes.clone();
+        this.values = other.values.clone();
+        this.size = other.size;
+    }
+
+    /**
+     * The table is always kept at most half full to keep the probe sequences short.
+     */
+    private static int capacityFor(int expectedSize) {
+        return Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.values = new Object[capacity];
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @NotNull
+    public NameNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    /**
+     * Finds the value mapped to the given raw name.
+     *
+     * @param name the name which will be normalized before comparing.
+     * @return the mapped value or null if not found.
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public V find(@NotNull CharSequence name) {
+        int hash = normalizer.hash(name);
+        String[] keys = this.keys;
+        int mask = keys.length - 1;
+
+        for (int i = spread(hash) & mask; ; i = (i + 1) & mask) {
+            String key = keys[i];
+            if (key == null) return null;
+            if (hashes[i] == hash && normalizer.matches(name, key)) return (V) values[i];
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof CharSequence ? find((CharSequence) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param name the key which will be normalized before being added.
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public V put(@NotNull String name, @NotNull V value) {
+        Objects.requireNonNull(value, () -> "Cannot map null value for " + name);
+        String key = normalizer.normalize(name);
+        int hash = key.hashCode();
+        int mask = keys.length - 1;
+
+        int i = spread(hash) & mask;
+        for (; keys[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == hash && keys[i].equals(key)) {
+                V previous = (V) values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+
+        keys[i] = key;
+        hashes[i] = hash;
+        values[i] = value;
+        if (++size * 2 > keys.length) resize();
+        return null;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        Object[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == null) continue;
+
+            int i = spread(oldHashes[j]) & mask;
+            while (keys[i] != null) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            hashes[i] = oldHashes[j];
+            values[i] = oldValues[j];
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @NotNull
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @NotNull
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new Iterator<Entry<String, V>>() {
+                    private int index = advance(0);
+
+                    private int advance(int from) {
+                        while (from < keys.length && keys[from] == null) from++;
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < keys.length;
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    @Override
+                    public Entry<String, V> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        Entry<String, V> entry = new SimpleImmutableEntry<>(keys[index], (V) values[index]);
+                        index = advance(index + 1);
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
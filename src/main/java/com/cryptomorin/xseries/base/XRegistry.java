@@ -35,6 +35,7 @@ import org.jetbrains.annotations.Unmodifiable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -44,6 +45,10 @@ import java.util.stream.Collectors;
 /**
  * A registry similar to Bukkit's {@link Registry}. It holds values as a form of {@link XBase} and
  * allows cross-version name mappings and also direct bukkit-to-xform mappings as well.
+ * <p>
+ * This class is thread-safe. Lookups are lock-free and read from an immutable {@link Snapshot} of
+ * the mappings. Values that are added after the registry is initialized (e.g. by auto-adding unknown
+ * Bukkit values) are written to a copy of the current snapshot which is then published atomically.
  *
  * @param <XForm>      The type used within this library.
  * @param <BukkitForm> The corresponding Bukkit type of the {@link XForm}.
@@ -73,12 +78,16 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
         KEYED_EXISTS = keyedExists;
     }
 
+    private final AtomicReference<Snapshot<XForm, BukkitForm>> snapshot =
+            new AtomicReference<>(new Snapshot<>(new NormalizedNameMap<>(NameNormalizer.NAMESPACE, 20), new IdentityHashMap<>(20), false));
+
     /**
-     * All entries are lowercase.
-     * Entries that belong to "minecraft" namespace, are added without the namespace.
+     * Whether this registry is still being filled by the static initializer of its {@link #xFormClass}.
+     * The JVM doesn't allow other threads to access the class during that phase, so changes can be
+     * applied directly to the current snapshot instead of copying it for every single value.
+     * The owner class must call {@link #seal()} at the end of its static initializer.
      */
-    private final Map<String, XForm> nameMappings = new HashMap<>(20);
-    private final Map<BukkitForm, XForm> bukkitToX = new IdentityHashMap<>(20);
+    private volatile boolean building = true;
 
     private final Class<BukkitForm> bukkitFormClass;
     private final Class<XForm> xFormClass;
@@ -90,7 +99,6 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
 
     private final boolean supportsRegistry;
     private final ClassType bukkitClassType;
-    private boolean pulled = false;
 
     @ApiStatus.Internal
     public XRegistry(Class<BukkitForm> bukkitFormClass, Class<XForm> xFormClass,
@@ -132,21 +140,78 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
         ENUM, ABSTRACTION;
     }
 
+    /**
+     * The mappings of a registry at a given point. Once published, a snapshot is never modified
+     * (except while the registry is {@link #building}) so it can be read without any locks.
+     */
+    private static final class Snapshot<XForm, BukkitForm> {
+        /**
+         * All entries are normalized with {@link NameNormalizer#NAMESPACE}.
+         * Entries that belong to "minecraft" namespace, are added without the namespace.
+         */
+        private final NormalizedNameMap<XForm> nameMappings;
+        private final Map<BukkitForm, XForm> bukkitToX;
+        private boolean pulled;
+
+        private Snapshot(NormalizedNameMap<XForm> nameMappings, Map<BukkitForm, XForm> bukkitToX, boolean pulled) {
+            this.nameMappings = nameMappings;
+            this.bukkitToX = bukkitToX;
+            this.pulled = pulled;
+        }
+
+        private Snapshot<XForm, BukkitForm> copy() {
+            return new Snapshot<>(new NormalizedNameMap<>(nameMappings), new IdentityHashMap<>(bukkitToX), pulled);
+        }
+    }
+
     @ApiStatus.Internal
     public XRegistry(Class<BukkitForm> bukkitFormClass, Class<XForm> xFormClass, Function<Integer, XForm[]> createArray) {
         this(bukkitFormClass, xFormClass, null, null, createArray);
     }
 
     @ApiStatus.Internal
+    @Unmodifiable
     @NotNull
     public Map<String, XForm> nameMapping() {
-        return nameMappings;
+        return Collections.unmodifiableMap(snapshot.get().nameMappings);
     }
 
     @ApiStatus.Internal
+    @Unmodifiable
     @NotNull
     public Map<BukkitForm, XForm> bukkitMapping() {
-        return bukkitToX;
+        return Collections.unmodifiableMap(snapshot.get().bukkitToX);
+    }
+
+    /**
+     * Applies the given changes to the mappings of this registry.
+     * <p>
+     * After the registry is built, the changes are applied to a copy of the current snapshot
+     * which is then published with a CAS. If another thread published a snapshot in the meantime,
+     * the changes are applied again to the newer snapshot, so {@code action} must not have any
+     * side effects other than modifying the given snapshot. New values must be created before this call.
+     *
+     * @return the value returned by the {@code action} that was successfully published.
+     */
+    private <T> T update(Function<Snapshot<XForm, BukkitForm>, T> action) {
+        if (building) return action.apply(snapshot.get());
+
+        while (true) {
+            Snapshot<XForm, BukkitForm> current = snapshot.get();
+            Snapshot<XForm, BukkitForm> next = current.copy();
+            T result = action.apply(next);
+            if (snapshot.compareAndSet(current, next)) return result;
+        }
+    }
+
+    /**
+     * Marks the end of the static initialization phase, after which every change is copy-on-write.
+     * This must be called at the end of the static initializer of the {@link #getXFormClass() XForm class},
+     * it's also called by all the lookup methods that might change the registry lazily.
+     */
+    @ApiStatus.Internal
+    public void seal() {
+        if (building) building = false;
     }
 
     /**
@@ -171,12 +236,21 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
     }
 
     private void pullValues() {
-        if (!pulled) {
-            pulled = true;
-            if (creator == null) return;
-            pullFieldNames();
-            if (PERFORM_AUTO_ADD) pullSystemValues();
-        }
+        if (snapshot.get().pulled) return;
+
+        seal();
+        List<Created<XForm, BukkitForm>> systemValues =
+                creator != null && PERFORM_AUTO_ADD ? createSystemValues() : Collections.emptyList();
+        update(mappings -> {
+            if (mappings.pulled) return null;
+            mappings.pulled = true;
+            if (creator == null) return null;
+            pullFieldNames(mappings);
+            for (Created<XForm, BukkitForm> created : systemValues) {
+                register(mappings, created);
+            }
+            return null;
+        });
     }
 
     @SuppressWarnings("unchecked")
@@ -196,38 +270,62 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
 
     @ApiStatus.Internal
     public void registerName(String name, XForm xForm) {
-        nameMappings.put(normalizeName(name), xForm);
+        update(mappings -> registerName(mappings, name, xForm));
+    }
+
+    /**
+     * Maps an additional Bukkit form that {@link #getBukkitName(Object)} cannot map by itself.
+     */
+    @ApiStatus.Internal
+    public void registerBukkitForm(BukkitForm bukkit, XForm xForm) {
+        update(mappings -> mappings.bukkitToX.put(bukkit, xForm));
+    }
+
+    private XForm registerName(Snapshot<XForm, BukkitForm> mappings, String name, XForm xForm) {
+        return mappings.nameMappings.put(name, xForm);
     }
 
     @SuppressWarnings("unused")
-    private void pullFieldNames() {
-        processEnumLikeFields(xFormClass, (field, x) -> registerMerged(x, field));
+    private void pullFieldNames(Snapshot<XForm, BukkitForm> mappings) {
+        processEnumLikeFields(xFormClass, (field, x) -> registerMerged(mappings, x, field));
         // processEnumLikeFields(xFormClass, (name, xForm) -> {
-        //     xForm.setEnumName(normalizeName(name));
+        //     xForm.setEnumName(NameNormalizer.NAMESPACE.normalize(name));
         //     registerName(name, xForm);
         // });
     }
 
+    /**
+     * Creates the values of all the Bukkit forms that aren't registered yet.
+     * The values are created before {@link #update(Function)} so they're not created again if it retries.
+     */
     @SuppressWarnings("unchecked")
-    private void pullSystemValues() {
+    private List<Created<XForm, BukkitForm>> createSystemValues() {
+        Map<BukkitForm, XForm> registered = snapshot.get().bukkitToX;
+        Set<BukkitForm> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Created<XForm, BukkitForm>> values = new ArrayList<>();
+        BiConsumer<String, BukkitForm> add = (extraFieldName, bukkit) -> {
+            if (!registered.containsKey(bukkit) && seen.add(bukkit)) values.add(create(extraFieldName, bukkit));
+        };
+
         // Enum-life names
         if (bukkitClassType == ClassType.ENUM) {
             for (BukkitForm bukkitForm : bukkitFormClass.getEnumConstants()) {
-                std(((Enum<?>) bukkitForm).name(), bukkitForm);
+                add.accept(((Enum<?>) bukkitForm).name(), bukkitForm);
             }
         } else {
             processEnumLikeFields(bukkitFormClass, (field, bukkit) -> {
                 if (bukkit == null) return; // Experimental value of declared field.
-                std(field.getName(), bukkit);
+                add.accept(field.getName(), bukkit);
             });
         }
 
         // Minecraft namespaces
         if (supportsRegistry) {
             for (Keyed bukkitForm : bukkitRegistry()) {
-                std((BukkitForm) bukkitForm);
+                add.accept(null, (BukkitForm) bukkitForm);
             }
         }
+        return values;
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -300,7 +398,7 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
         pullValues();
 
         // Don't use nameMapping because it will return duplicates.
-        return Collections.unmodifiableCollection(bukkitToX.values());
+        return Collections.unmodifiableCollection(snapshot.get().bukkitToX.values());
     }
 
     /**
@@ -312,7 +410,7 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
         pullValues();
 
         // Don't use getValues() for extra unmodifiable overhead.
-        Collection<XForm> values = bukkitToX.values();
+        Collection<XForm> values = snapshot.get().bukkitToX.values();
         return values.toArray(createArray.apply(values.size()));
     }
 
@@ -325,15 +423,18 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
     @NotNull
     public XForm getByBukkitForm(BukkitForm bukkit) {
         Objects.requireNonNull(bukkit, () -> "Cannot match null " + registryName);
-        XForm mapping = bukkitToX.get(bukkit);
+        XForm mapping = snapshot.get().bukkitToX.get(bukkit);
 
         if (mapping == null) {
             if (!PERFORM_AUTO_ADD) // If you ever get this error, it could mean that you're not following Minecraft's new dot separated namespace format.
                 throw new UnsupportedOperationException("Unknown standard bukkit form (no auto-add) for " + registryName + ": " + bukkit);
             if (creator == null)
                 throw new UnsupportedOperationException("Unsupported value for " + registryName + ": " + bukkit);
-            XForm xForm = std(bukkit);
-            if (xForm == null) throw new IllegalStateException("Unknown " + registryName + ": " + bukkit);
+
+            seal();
+            Created<XForm, BukkitForm> created = create(null, bukkit);
+            mapping = update(mappings -> register(mappings, created));
+            if (mapping == null) throw new IllegalStateException("Unknown " + registryName + ": " + bukkit);
         }
 
         return mapping;
@@ -344,7 +445,7 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
         if (name.isEmpty()) return Optional.empty();
 
         pullValues(); // Ensure field names are loaded too.
-        return Optional.ofNullable(nameMappings.get(normalizeName(name)));
+        return Optional.ofNullable(snapshot.get().nameMappings.find(name));
     }
 
     @SuppressWarnings("deprecation")
@@ -368,64 +469,24 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
     }
 
     /**
-     * This method is here for legacy purposes.
-     * <p>
-     * Attempts to build the string like an enum name.<br>
-     * Removes all the spaces, numbers and extra non-English characters. Also removes some config/in-game based strings.
-     * While this method is hard to maintain, it's extremely efficient. It's approximately more than x5 times faster than
-     * the normal RegEx + String Methods approach for both formatted and unformatted material names.
-     *
-     * @param name the sound name to format.
-     * @return an enum name.
-     * @since 1.0.0
+     * A value that was created for a Bukkit form, but isn't {@link #register(Snapshot, Created) registered} yet.
      */
-    @SuppressWarnings("unused")
-    @NotNull
-    private static String format(@NotNull String name) {
-        int len = name.length();
-        char[] chs = new char[len];
-        int count = 0;
-        boolean appendUnderline = false;
-
-        for (int i = 0; i < len; i++) {
-            char ch = name.charAt(i);
-
-            if (!appendUnderline && count != 0 && (ch == '-' || ch == ' ' || ch == '_') && chs[count] != '_')
-                appendUnderline = true;
-            else {
-                boolean number = false;
-                // A few sounds have numbers in them.
-                if ((ch >= 'A' && ch <= 'Z') || (ch >= 'a' && ch <= 'z') || (number = (ch >= '0' && ch <= '9'))) {
-                    if (appendUnderline) {
-                        chs[count++] = '_';
-                        appendUnderline = false;
-                    }
-
-                    if (number) chs[count++] = ch;
-                    else chs[count++] = (char) (ch & 0x5f);
-                }
-            }
+    private static final class Created<XForm, BukkitForm> {
+        private final String name;
+        @Nullable
+        private final String extraFieldName;
+        private final BukkitForm bukkit;
+        private final XForm xForm;
+
+        private Created(String name, @Nullable String extraFieldName, BukkitForm bukkit, XForm xForm) {
+            this.name = name;
+            this.extraFieldName = extraFieldName;
+            this.bukkit = bukkit;
+            this.xForm = xForm;
         }
-
-        return new String(chs, 0, count);
     }
 
-    private static String normalizeName(String name) {
-        // TODO convert this into the format() method above.
-        name = name.toLowerCase(Locale.ENGLISH);
-        if (name.startsWith("minecraft:")) name = name.substring("minecraft:".length());
-        name = name.replace('.', '_'); // This is very unlikely to cause a conflict.
-        return name;
-    }
-
-    private XForm std(BukkitForm bukkit) {
-        return std(null, bukkit);
-    }
-
-    private XForm std(@Nullable String extraFieldName, BukkitForm bukkit) {
-        XForm xForm = bukkitToX.get(bukkit);
-        if (xForm != null) return xForm;
-
+    private Created<XForm, BukkitForm> create(@Nullable String extraFieldName, BukkitForm bukkit) {
         String name = getBukkitName(bukkit);
 
         if (getBukkit(new String[]{name}) == null && extraFieldName == null) {
@@ -440,14 +501,21 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
                     + (bukkit.toString().equals(name) ? "" : (" (" + name + ')')));
         }
 
-        xForm = creator.apply(bukkit, extraFieldName == null ? new String[]{name} : new String[]{extraFieldName, name});
-        if (!PERFORM_AUTO_ADD) return xForm;
+        XForm xForm = creator.apply(bukkit, extraFieldName == null ? new String[]{name} : new String[]{extraFieldName, name});
+        return new Created<>(name, extraFieldName, bukkit, xForm);
+    }
 
-        registerName(name, xForm);
-        if (extraFieldName != null) registerName(extraFieldName, xForm);
-        bukkitToX.put(bukkit, xForm);
+    /**
+     * @return the value that was already registered by another thread for the same Bukkit form, or the created value.
+     */
+    private XForm register(Snapshot<XForm, BukkitForm> mappings, Created<XForm, BukkitForm> created) {
+        XForm xForm = mappings.bukkitToX.get(created.bukkit);
+        if (xForm != null) return xForm;
 
-        return xForm;
+        registerName(mappings, created.name, created.xForm);
+        if (created.extraFieldName != null) registerName(mappings, created.extraFieldName, created.xForm);
+        mappings.bukkitToX.put(created.bukkit, created.xForm);
+        return created.xForm;
     }
 
     @ApiStatus.Internal
@@ -462,53 +530,55 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
     public BukkitForm stdEnum(XForm xForm, String[] names) {
         String enumName = xForm.name();
 
-        boolean merged = false;
-        BukkitForm bukkit = getBukkit(new String[]{enumName});
-        if (bukkit == null) bukkit = getBukkit(names);
-        if (bukkit == null) {
-            bukkit = registerMerged(xForm);
-            merged = true;
-        }
+        return update(mappings -> {
+            boolean merged = false;
+            BukkitForm bukkit = getBukkit(new String[]{enumName});
+            if (bukkit == null) bukkit = getBukkit(names);
+            if (bukkit == null) {
+                bukkit = registerMerged(mappings, xForm);
+                merged = true;
+            }
 
-        return stdEnum0(xForm, names, bukkit, merged);
+            return stdEnum0(mappings, xForm, names, bukkit, merged);
+        });
     }
 
     public BukkitForm stdEnum(XForm xForm, String[] names, BukkitForm bukkit) {
-        return stdEnum0(xForm, names, bukkit, false);
+        return update(mappings -> stdEnum0(mappings, xForm, names, bukkit, false));
     }
 
     @ApiStatus.Internal
-    private BukkitForm stdEnum0(XForm xForm, String[] names, BukkitForm bukkit, boolean merged) {
+    private BukkitForm stdEnum0(Snapshot<XForm, BukkitForm> mappings, XForm xForm, String[] names, BukkitForm bukkit, boolean merged) {
         // Doesn't matter if it's not supported, we should still create it.
         String enumName = xForm.name();
 
-        if (!merged) registerMerged(xForm);
+        if (!merged) registerMerged(mappings, xForm);
 
-        registerName(enumName, xForm);
+        registerName(mappings, enumName, xForm);
         for (String name : names) {
-            registerName(name, xForm);
+            registerName(mappings, name, xForm);
         }
-        if (bukkit != null) bukkitToX.put(bukkit, xForm);
+        if (bukkit != null) mappings.bukkitToX.put(bukkit, xForm);
         return bukkit;
     }
 
-    private BukkitForm registerMerged(XForm xForm) {
+    private BukkitForm registerMerged(Snapshot<XForm, BukkitForm> mappings, XForm xForm) {
         Field formField;
         try {
             formField = xForm.getClass().getDeclaredField(xForm.name());
         } catch (NoSuchFieldException e) {
             throw new IllegalStateException("Cannot find field for XForm: " + xForm, e);
         }
-        return registerMerged(xForm, formField);
+        return registerMerged(mappings, xForm, formField);
     }
 
-    private BukkitForm registerMerged(XForm xForm, Field formField) {
+    private BukkitForm registerMerged(Snapshot<XForm, BukkitForm> mappings, XForm xForm, Field formField) {
         XMerge[] merges = formField.getAnnotationsByType(XMerge.class);
         BukkitForm mergedBukkit = null;
         for (XMerge merge : merges) { // Will be an empty array if null.
             mergedBukkit = getBukkit(new String[]{merge.name()});
-            registerName(merge.name(), xForm);
-            if (mergedBukkit != null) bukkitToX.put(mergedBukkit, xForm);
+            registerName(mappings, merge.name(), xForm);
+            if (mergedBukkit != null) mappings.bukkitToX.put(mergedBukkit, xForm);
         }
         return mergedBukkit;
     }
@@ -528,23 +598,26 @@ public final class XRegistry<XForm extends XBase<XForm, BukkitForm>, BukkitForm>
 
     @ApiStatus.Internal
     public XForm std(XForm xForm) {
-        for (String name : xForm.getNames()) {
-            registerName(name, xForm);
-        }
-        if (xForm.isSupported()) bukkitToX.put(xForm.get(), xForm);
-        return xForm;
+        return update(mappings -> {
+            for (String name : xForm.getNames()) {
+                registerName(mappings, name, xForm);
+            }
+            if (xForm.isSupported()) mappings.bukkitToX.put(xForm.get(), xForm);
+            return xForm;
+        });
     }
 
     @Override
     public String toString() {
+        Snapshot<XForm, BukkitForm> snapshot = this.snapshot.get();
         return "XRegistry<" + registryName + ">(" +
-                "nameMappings=" + nameMappings.size() + ", bukkitToX=" + bukkitToX.size() +
+                "nameMappings=" + snapshot.nameMappings.size() + ", bukkitToX=" + snapshot.bukkitToX.size() +
                 ", bukkitFormClass=" + bukkitFormClass.getName() +
                 ", xFormClass=" + xFormClass.getName() +
                 ", supportsRegistry=" + supportsRegistry +
                 ", bukkitFormClassType=" + bukkitClassType +
-                ", pulled=" + pulled +
-                ", values=[" + bukkitToX.values().stream().limit(10).map(XBase::name).collect(Collectors.joining(", ")) + ']' +
+                ", pulled=" + snapshot.pulled +
+                ", values=[" + snapshot.bukkitToX.values().stream().limit(10).map(XBase::name).collect(Collectors.joining(", ")) + ']' +
                 ')';
     }
 }
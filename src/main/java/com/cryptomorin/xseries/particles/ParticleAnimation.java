@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.particles;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs the animations of {@link Particles} (e.g. {@link Particles#helix(int, double, double, double, double, double, double, boolean, boolean, ParticleDisplay)})
+ * with their math done in worker threads, while the server thread only sends the packets.
+ * <p>
+ * Every tick, the particles of the frame that was computed in the previous tick are sent and the next frame
+ * starts computing in the background. The frames are collected as a {@link ParticleDisplay#beginBatch() batch}
+ * so the packets are built by the workers too. If a frame isn't ready in time, the tick is skipped instead
+ * of waiting for it. Only one frame is computed at a time, so animations don't need to be thread-safe.
+ * <pre>{@code
+ * ParticleDisplay display = ParticleDisplay.of(XParticle.FLAME).withLocation(location);
+ * ParticleAnimation.of(display, Particles.helix(4, 3, 10, 1, 10, 3, 0.01, false, false, display)).start(plugin);
+ * }</pre>
+ * Only the particles spawned by the given display and its copies are deferred, other displays
+ * used by the animation spawn their particles directly from the worker thread.
+ * The display should not be used by anything else while the animation is running.
+ * If batching isn't {@link ParticleDisplay#supportsBatching() supported}, the particles are spawned
+ * from the worker thread just like the tasks that are started asynchronously by {@link Particles}.
+ *
+ * @since 13.0.0
+ */
+public final class ParticleAnimation implements Runnable {
+    /**
+     * A few threads are enough, frames of the same animation are never computed in parallel.
+     */
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        int threads = Integer.getInteger("xseries.particles.animationThreads",
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1L, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), run -> {
+            Thread thread = new Thread(run, "XSeries Particle Animator #" + count.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private final ParticleDisplay display;
+    private final BooleanSupplier animation;
+    private final Executor executor;
+
+    /**
+     * The frame that's being computed by the workers. Only accessed by the server thread.
+     */
+    @Nullable
+    private CompletableFuture<ParticleBatch> next;
+    /**
+     * Used for sending the frames, only accessed by the server thread.
+     * The display's viewers are left for the workers.
+     */
+    private final ParticleViewers viewers = new ParticleViewers();
+    /**
+     * Set by the worker when the animation returns false, the frame it was computing is still sent.
+     */
+    private volatile boolean lastFrame;
+    private volatile boolean done;
+    @Nullable
+    private BukkitTask task;
+
+    private ParticleAnimation(ParticleDisplay display, BooleanSupplier animation, Executor executor) {
+        this.display = Objects.requireNonNull(display, "Particle display cannot be null");
+        this.animation = Objects.requireNonNull(animation, "Animation cannot be null");
+        this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+    }
+
+    /**
+     * @param display   the display that the animation spawns its particles with.
+     * @param animation a single frame of the animation for every call, returns false when the animation is over.
+     */
+    @NotNull
+    public static ParticleAnimation of(@NotNull ParticleDisplay display, @NotNull BooleanSupplier animation) {
+        return new ParticleAnimation(display, animation, EXECUTOR);
+    }
+
+    /**
+     * @param executor the executor that the frames are computed in.
+     * @see #of(ParticleDisplay, BooleanSupplier)
+     */
+    @NotNull
+    public static ParticleAnimation of(@NotNull ParticleDisplay display, @NotNull BooleanSupplier animation, @NotNull Executor executor) {
+        return new ParticleAnimation(display, animation, executor);
+    }
+
+    /**
+     * For animations that never end, such as {@link Particles#vortex(int, double, ParticleDisplay)}
+     *
+     * @see #of(ParticleDisplay, BooleanSupplier)
+     */
+    @NotNull
+    public static ParticleAnimation of(@NotNull ParticleDisplay display, @NotNull Runnable animation) {
+        Objects.requireNonNull(animation, "Animation cannot be null");
+        return of(display, () -> {
+            animation.run();
+            return true;
+        });
+    }
+
+    /**
+     * Runs {@link #run()} every tick in the server thread until the animation is over or {@link #cancel() cancelled}.
+     * For <a href="https://papermc.io/software/folia">Folia</a>, {@link #run()} should be called by the region scheduler instead.
+     *
+     * @return the same animation.
+     */
+    @NotNull
+    public ParticleAnimation start(@NotNull Plugin plugin) {
+        if (task != null) throw new IllegalStateException("Animation is already started");
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this, 0L, 1L);
+        return this;
+    }
+
+    /**
+     * A single tick of this animation, which should be called from the server thread.
+     * Sends the last computed frame (if it's ready) and starts computing the next one.
+     */
+    @Override
+    public void run() {
+        if (done) return;
+
+        CompletableFuture<ParticleBatch> frame = this.next;
+        ParticleBatch batch = null;
+        if (frame != null) {
+            // Never block the server thread, the frame will be sent in the next tick.
+            if (!frame.isDone()) return;
+            try {
+                batch = frame.join();
+            } catch (CompletionException ex) {
+                cancel();
+                throw ex;
+            }
+        }
+
+        if (lastFrame) {
+            this.next = null;
+            cancel();
+        } else {
+            this.next = CompletableFuture.supplyAsync(this::computeFrame, executor);
+        }
+
+        // While the workers are computing the next frame. This doesn't use the display, the batch
+        // already has the players and view distances of every particle from when they were spawned.
+        if (batch != null) batch.flush(viewers);
+    }
+
+    @Nullable
+    private ParticleBatch computeFrame() {
+        display.beginBatch();
+        ParticleBatch batch;
+        try {
+            if (!animation.getAsBoolean()) lastFrame = true;
+        } finally {
+            // Null if batching isn't supported, in which case the particles are already spawned.
+            batch = display.detachBatch();
+        }
+        return batch;
+    }
+
+    /**
+     * Whether the next frame is computed and will be sent in the next {@link #run() tick}.
+     */
+    public boolean isFrameReady() {
+        CompletableFuture<ParticleBatch> frame = this.next;
+        return frame == null || frame.isDone();
+    }
+
+    /**
+     * Stops the animation. The frame that's currently being computed is discarded.
+     */
+    public void cancel() {
+        done = true;
+        if (task != null) task.cancel();
+    }
+
+    /**
+     * Whether the animation is over or was {@link #cancel() cancelled}.
+     */
+    public boolean isDone() {
+        return done;
+    }
+}
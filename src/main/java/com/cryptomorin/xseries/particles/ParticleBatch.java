@@ -0,0 +1,429 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.particles;
+
+import com.cryptomorin.xseries.reflection.XReflection;
+import com.cryptomorin.xseries.reflection.jvm.classes.ClassHandle;
+import com.cryptomorin.xseries.reflection.minecraft.MinecraftClassHandle;
+import com.cryptomorin.xseries.reflection.minecraft.MinecraftConnection;
+import com.cryptomorin.xseries.reflection.minecraft.MinecraftMapping;
+import com.cryptomorin.xseries.reflection.minecraft.MinecraftPackage;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.cryptomorin.xseries.reflection.XReflection.ofMinecraft;
+
+/**
+ * Collects the particles of a single frame spawned by a {@link ParticleDisplay} as NMS packets,
+ * so they're only built once and sent to every viewer as bundles instead of going through
+ * {@link World#spawnParticle(Particle, Location, int)} for every particle.
+ *
+ * @see ParticleDisplay#beginBatch()
+ */
+final class ParticleBatch {
+    /**
+     * {@code CraftParticle.createParticleParam(Particle, Object)} (v1.20.5+) or {@code CraftParticle.toNMS(Particle, Object)}
+     */
+    private static final MethodHandle TO_NMS;
+    private static final MethodHandle NEW_PACKET;
+    /**
+     * Which one of the {@code ClientboundLevelParticlesPacket} constructors {@link #NEW_PACKET} is.
+     */
+    private static final int PACKET_CONSTRUCTOR;
+    private static final int FLOAT_POSITION = 0, DOUBLE_POSITION = 1, ALWAYS_SHOW = 2;
+
+    /**
+     * The same view distances used by {@code ServerLevel#sendParticles()}
+     */
+    private static final double VIEW_DISTANCE_SQUARED = 32 * 32, FORCED_VIEW_DISTANCE_SQUARED = 512 * 512;
+
+    static {
+        MethodHandle toNMS = null, newPacket = null;
+        int packetConstructor = -1;
+
+        // Versions before v1.13 use an enum with int[] data which isn't worth supporting.
+        if (XReflection.supports(13)) {
+            try {
+                MinecraftClassHandle ParticleOptions = ofMinecraft()
+                        .inPackage(MinecraftPackage.NMS, "core.particles")
+                        .map(MinecraftMapping.MOJANG, "ParticleOptions")
+                        .map(MinecraftMapping.SPIGOT, "ParticleParam");
+                MinecraftClassHandle CraftParticle = ofMinecraft()
+                        .inPackage(MinecraftPackage.CB)
+                        .named("CraftParticle");
+                MinecraftClassHandle LevelParticlesPacket = ofMinecraft()
+                        .inPackage(MinecraftPackage.NMS, "network.protocol.game")
+                        .map(MinecraftMapping.MOJANG, "ClientboundLevelParticlesPacket")
+                        .map(MinecraftMapping.SPIGOT, "PacketPlayOutWorldParticles");
+
+                toNMS = CraftParticle.method().asStatic()
+                        .named("createParticleParam", "toNMS")
+                        .returns(ParticleOptions)
+                        .parameters(Particle.class, Object.class)
+                        .reflect();
+
+                ClassHandle bool = XReflection.of(boolean.class), dbl = XReflection.of(double.class),
+                        flt = XReflection.of(float.class), integer = XReflection.of(int.class);
+
+                // (options, overrideLimiter, alwaysShow, x, y, z, xDist, yDist, zDist, maxSpeed, count)
+                newPacket = LevelParticlesPacket.constructor(ParticleOptions, bool, bool, dbl, dbl, dbl, flt, flt, flt, flt, integer).reflectOrNull();
+                if (newPacket != null) packetConstructor = ALWAYS_SHOW;
+                else {
+                    // (options, overrideLimiter, x, y, z, xDist, yDist, zDist, maxSpeed, count)
+                    newPacket = LevelParticlesPacket.constructor(ParticleOptions, bool, dbl, dbl, dbl, flt, flt, flt, flt, integer).reflectOrNull();
+                    if (newPacket != null) packetConstructor = DOUBLE_POSITION;
+                    else {
+                        newPacket = LevelParticlesPacket.constructor(ParticleOptions, bool, flt, flt, flt, flt, flt, flt, flt, integer).reflect();
+                        packetConstructor = FLOAT_POSITION;
+                    }
+                }
+            } catch (Throwable ignored) {
+                toNMS = null;
+                newPacket = null;
+            }
+        }
+
+        TO_NMS = toNMS;
+        NEW_PACKET = newPacket;
+        PACKET_CONSTRUCTOR = packetConstructor;
+    }
+
+    private final List<Object> packets = new ArrayList<>();
+    /**
+     * The xyz of every packet in {@link #packets}, used to check which players can see them.
+     */
+    private double[] positions = new double[3 * 64];
+    /**
+     * The world of every packet in {@link #packets}. Shapes rarely change worlds in the middle of a frame,
+     * but packets are only sent when the batch is flushed, possibly from another thread.
+     */
+    private World[] worlds = new World[64];
+    /**
+     * The players and view distances that the packets are sent with, which can be different for copies of the display.
+     * Every time they change, a new run of packets starts at the index of {@link #runStarts}.
+     */
+    private Audience[] audiences = new Audience[4];
+    private int[] runStarts = new int[4];
+    private int runs;
+    /**
+     * Only used by {@link #flush()} which is called from the server thread.
+     */
+    @Nullable
+    private ParticleViewers viewers;
+    /**
+     * The location of the display when the batch started, used as the origin for {@link ParticleViewers}.
+     * The display might be moved by animations before this batch is flushed.
+     */
+    @Nullable
+    private final Location origin;
+
+    /**
+     * The NMS particle options only change when the particle data changes,
+     * which usually doesn't happen between the particles of the same frame.
+     */
+    @Nullable
+    private Particle lastParticle;
+    @Nullable
+    private Object lastData, lastOptions;
+    /**
+     * Copies of the display might still reference this batch after it was flushed.
+     */
+    private volatile boolean closed;
+
+    ParticleBatch(@Nullable Location origin) {
+        this.origin = origin == null ? null : origin.clone();
+    }
+
+    static boolean isSupported() {
+        return NEW_PACKET != null;
+    }
+
+    /**
+     * Builds a single particle packet that can be sent to multiple players.
+     * Only works if this class is {@link #isSupported() supported}.
+     */
+    @NotNull
+    static Object createPacket(Particle particle, Location loc, int count, boolean force,
+                               double dx, double dy, double dz, double extra, @Nullable Object data) {
+        try {
+            Object options = TO_NMS.invoke(particle, data);
+            return createPacket(options, force, loc.getX(), loc.getY(), loc.getZ(), count, dx, dy, dz, extra);
+        } catch (Throwable throwable) {
+            throw XReflection.throwCheckedException(throwable);
+        }
+    }
+
+    private static Object createPacket(Object options, boolean force, double x, double y, double z, int count,
+                                       double dx, double dy, double dz, double extra) throws Throwable {
+        switch (PACKET_CONSTRUCTOR) {
+            case ALWAYS_SHOW:
+                return NEW_PACKET.invoke(options, force, false, x, y, z, (float) dx, (float) dy, (float) dz, (float) extra, count);
+            case DOUBLE_POSITION:
+                return NEW_PACKET.invoke(options, force, x, y, z, (float) dx, (float) dy, (float) dz, (float) extra, count);
+            default:
+                return NEW_PACKET.invoke(options, force, (float) x, (float) y, (float) z, (float) dx, (float) dy, (float) dz, (float) extra, count);
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Flushes the remaining packets and stops accepting new particles.
+     */
+    void close() {
+        closed = true;
+        flush();
+    }
+
+    /**
+     * Stops accepting new particles without sending them, so they can be {@link #flush() flushed} later.
+     */
+    @NotNull
+    ParticleBatch detach() {
+        closed = true;
+        return this;
+    }
+
+    void add(ParticleDisplay display, Particle particle, Location loc, int count,
+             double dx, double dy, double dz, double extra, @Nullable Object data) {
+        double x = loc.getX(), y = loc.getY(), z = loc.getZ();
+        Object packet;
+        try {
+            Object options;
+            if (particle == lastParticle && data == lastData && lastOptions != null) options = lastOptions;
+            else {
+                options = TO_NMS.invoke(particle, data);
+                lastParticle = particle;
+                lastData = data;
+                lastOptions = options;
+            }
+            packet = createPacket(options, display.force, x, y, z, count, dx, dy, dz, extra);
+        } catch (Throwable throwable) {
+            throw XReflection.throwCheckedException(throwable);
+        }
+
+        int size = packets.size();
+        if (runs == 0 || !audiences[runs - 1].matches(display)) {
+            if (runs == audiences.length) {
+                audiences = Arrays.copyOf(audiences, runs * 2);
+                runStarts = Arrays.copyOf(runStarts, runs * 2);
+            }
+            audiences[runs] = new Audience(display);
+            runStarts[runs] = size;
+            runs++;
+        }
+
+        if (size == worlds.length) {
+            worlds = Arrays.copyOf(worlds, size * 2);
+            positions = Arrays.copyOf(positions, size * 2 * 3);
+        }
+
+        int index = size * 3;
+        positions[index] = x;
+        positions[index + 1] = y;
+        positions[index + 2] = z;
+        worlds[size] = loc.getWorld();
+        packets.add(packet);
+    }
+
+    /**
+     * Sends all the collected packets to the players that can see them and clears this batch.
+     * The packets are sent with the settings of the display that spawned them, so this doesn't
+     * read anything from the display itself.
+     * This should be called from the server thread.
+     */
+    void flush() {
+        ParticleViewers viewers = this.viewers;
+        if (viewers == null) viewers = this.viewers = new ParticleViewers();
+        flush(viewers);
+    }
+
+    /**
+     * @param viewers used to compute the viewers of this frame, which must only be used by the thread that flushes.
+     * @see #flush()
+     */
+    void flush(@NotNull ParticleViewers viewers) {
+        int size = packets.size();
+        if (size == 0) return;
+
+        try {
+            // Send the packets of each world and audience separately.
+            int from = 0, run = 0;
+            while (from < size) {
+                while (run + 1 < runs && runStarts[run + 1] <= from) run++;
+                int end = run + 1 < runs ? runStarts[run + 1] : size;
+
+                World world = worlds[from];
+                int to = from + 1;
+                while (to < end && worlds[to] == world) to++;
+
+                flush(viewers, audiences[run], world, from, to);
+                from = to;
+            }
+        } finally {
+            packets.clear();
+            Arrays.fill(worlds, 0, size, null);
+            Arrays.fill(audiences, 0, runs, null);
+            runs = 0;
+            lastParticle = null;
+            lastData = null;
+            lastOptions = null;
+        }
+    }
+
+    private void flush(ParticleViewers viewers, Audience audience, World world, int from, int to) {
+        List<Object> packets = from == 0 && to == this.packets.size() ? this.packets : this.packets.subList(from, to);
+
+        if (audience.isCullingViewers() && world != null) {
+            double x, y, z;
+            if (origin != null && origin.getWorld() == world) {
+                x = origin.getX();
+                y = origin.getY();
+                z = origin.getZ();
+            } else {
+                int index = from * 3;
+                x = positions[index];
+                y = positions[index + 1];
+                z = positions[index + 2];
+            }
+
+            viewers.update(audience.players, audience.force, audience.viewDistance, audience.detailDistance, world, x, y, z);
+            sendToViewers(viewers, packets);
+            return;
+        }
+
+        List<Player> players = audience.players;
+        if (players != null) {
+            for (Player player : players) {
+                MinecraftConnection.sendBundle(player, packets);
+            }
+            return;
+        }
+
+        if (world == null) return;
+        double viewDistance = audience.force ? FORCED_VIEW_DISTANCE_SQUARED : VIEW_DISTANCE_SQUARED;
+        int size = packets.size();
+        Location playerLocation = new Location(world, 0, 0, 0);
+        List<Object> visible = null;
+
+        for (Player player : world.getPlayers()) {
+            player.getLocation(playerLocation);
+            double px = playerLocation.getX(), py = playerLocation.getY(), pz = playerLocation.getZ();
+
+            int first = -1, seen = 0;
+            for (int i = 0; i < size; i++) {
+                if (isVisible(from + i, px, py, pz, viewDistance)) {
+                    if (first == -1) first = i;
+                    seen++;
+                }
+            }
+
+            if (seen == 0) continue;
+            if (seen == size) {
+                MinecraftConnection.sendBundle(player, packets);
+                continue;
+            }
+
+            if (visible == null) visible = new ArrayList<>(seen);
+            else visible.clear();
+            for (int i = first; i < size; i++) {
+                if (isVisible(from + i, px, py, pz, viewDistance)) visible.add(packets.get(i));
+            }
+            MinecraftConnection.sendBundle(player, visible);
+        }
+    }
+
+    /**
+     * Sends the packets to the viewers of this frame, skipping points for the ones that are far away.
+     */
+    private static void sendToViewers(ParticleViewers viewers, List<Object> packets) {
+        int size = packets.size();
+        List<Object> thinned = null;
+
+        for (int viewer = 0; viewer < viewers.size(); viewer++) {
+            Player player = viewers.getPlayer(viewer);
+            int stride = viewers.getStride(viewer);
+            if (stride == 1) {
+                MinecraftConnection.sendBundle(player, packets);
+                continue;
+            }
+
+            if (thinned == null) thinned = new ArrayList<>(size / stride + 1);
+            else thinned.clear();
+            for (int i = 0; i < size; i += stride) thinned.add(packets.get(i));
+            MinecraftConnection.sendBundle(player, thinned);
+        }
+    }
+
+    private boolean isVisible(int packet, double x, double y, double z, double viewDistanceSquared) {
+        int index = packet * 3;
+        double dx = positions[index] - x;
+        double dy = positions[index + 1] - y;
+        double dz = positions[index + 2] - z;
+        return (dx * dx) + (dy * dy) + (dz * dz) < viewDistanceSquared;
+    }
+
+    /**
+     * The settings of the display that spawned a run of packets, copied when the run starts
+     * since the batch might be flushed from another thread.
+     */
+    private static final class Audience {
+        /**
+         * Only used to compare the displays, {@link #players} is what the packets are sent to.
+         */
+        @Nullable
+        private final Set<Player> source;
+        @Nullable
+        private final List<Player> players;
+        private final boolean force;
+        private final double viewDistance, detailDistance;
+
+        private Audience(ParticleDisplay display) {
+            this.source = display.getPlayers();
+            this.players = source == null ? null : new ArrayList<>(source);
+            this.force = display.force;
+            this.viewDistance = display.getViewDistance();
+            this.detailDistance = display.getLevelOfDetail();
+        }
+
+        private boolean matches(ParticleDisplay display) {
+            return display.getPlayers() == source && display.force == force
+                    && display.getViewDistance() == viewDistance && display.getLevelOfDetail() == detailDistance;
+        }
+
+        private boolean isCullingViewers() {
+            return viewDistance > 0 || detailDistance > 0;
+        }
+    }
+}
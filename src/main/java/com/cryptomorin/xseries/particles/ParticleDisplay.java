@@ -21,6 +21,7 @@
  */
 package com.cryptomorin.xseries.particles;
 
+import com.cryptomorin.xseries.reflection.minecraft.MinecraftConnection;
 import org.bukkit.*;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.configuration.ConfigurationSection;
@@ -195,6 +196,17 @@ public class ParticleDisplay {
     public List<List<Rotation>> rotations = new ArrayList<>();
     @Nullable
     private List<Quaternion> cachedFinalRotationQuaternions;
+    /**
+     * {@link #cachedFinalRotationQuaternions} flattened as (w, x, y, z) followed by the inverse (w, x, y, z) of each one.
+     */
+    @Nullable
+    private double[] cachedRotationComponents;
+    /**
+     * Reused for every particle spawned by {@link #spawnPoint(double, double, double)}. This is never exposed.
+     */
+    @Nullable
+    private Location scratchLocation;
+    private final double[] scratchPoint = new double[3];
     @Nullable
     private ParticleData data;
     @Nullable
@@ -205,6 +217,17 @@ public class ParticleDisplay {
     private Function<Double, Double> onAdvance;
     @Nullable
     private Set<Player> players;
+    /**
+     * Collects particles instead of spawning them until {@link #flushBatch()} is called.
+     */
+    @Nullable
+    private ParticleBatch batch;
+    /**
+     * Players further than these distances won't see the particles or will see fewer particles.
+     */
+    private double viewDistance, detailDistance;
+    @Nullable
+    private ParticleViewers viewers;
 
     /**
      * Builds a simple ParticleDisplay object with cross-version
@@ -410,6 +433,8 @@ public class ParticleDisplay {
      * <li>count : the count as integer, at least 0.
      * <li>extra : the particle speed, most of the time.
      * <li>force : true or false, if the particle has force or not.
+     * <li>view-distance : the distance in blocks players can see the particles from.
+     * <li>level-of-detail : the distance in blocks after which players see fewer particles.
      * <li>offset : the offset where values are separated by commas "dx, dy, dz".
      * <li>rotation : the rotation of the particles in degrees.
      * <li>color : the data representing color "R, G, B, size" where RGB values are integers
@@ -437,6 +462,8 @@ public class ParticleDisplay {
         if (config.isSet("count")) display.withCount(config.getInt("count"));
         if (config.isSet("extra")) display.withExtra(config.getDouble("extra"));
         if (config.isSet("force")) display.forceSpawn(config.getBoolean("force"));
+        if (config.isSet("view-distance")) display.withViewDistance(config.getDouble("view-distance"));
+        if (config.isSet("level-of-detail")) display.withLevelOfDetail(config.getDouble("level-of-detail"));
 
         String offset = config.getString("offset");
         if (offset != null) {
@@ -589,6 +616,14 @@ public class ParticleDisplay {
             section.set("force", true);
         }
 
+        if (display.viewDistance != 0) {
+            section.set("view-distance", display.viewDistance);
+        }
+
+        if (display.detailDistance != 0) {
+            section.set("level-of-detail", display.detailDistance);
+        }
+
         if (!isZero(display.offset)) {
             Vector offset = display.offset;
             section.set("offset", offset.getX() + ", " + offset.getY() + ", " + offset.getZ());
@@ -880,6 +915,103 @@ public class ParticleDisplay {
         return this;
     }
 
+    /**
+     * Only sends the particles to players within the given distance of this display's location.
+     * The viewers are computed once for every frame (a {@link #beginBatch() batch}, a {@link ParticleShape}
+     * or a single tick) instead of for every particle.
+     * <p>
+     * The distance is measured from the location of the display, so it should also include the size of the shape.
+     * If the view distance isn't set but {@link #withLevelOfDetail(double)} is, the distance
+     * particles can be seen from is used which is also limited by the server's view distance.
+     *
+     * @param viewDistance the distance in blocks, or 0 to send the particles normally.
+     * @since 13.0.0
+     */
+    @NotNull
+    public ParticleDisplay withViewDistance(double viewDistance) {
+        if (viewDistance < 0) throw new IllegalArgumentException("View distance cannot be negative: " + viewDistance);
+        this.viewDistance = viewDistance;
+        if (viewers != null) viewers.invalidate();
+        return this;
+    }
+
+    /**
+     * Players further than the given distance will see fewer particles.
+     * Players twice as far away will see half the particles, three times as far a third of them and so on.
+     * This also enables {@link #withViewDistance(double) viewer culling}.
+     *
+     * @param detailDistance the distance in blocks in which players can see all the particles, or 0 to disable.
+     * @since 13.0.0
+     */
+    @NotNull
+    public ParticleDisplay withLevelOfDetail(double detailDistance) {
+        if (detailDistance < 0) throw new IllegalArgumentException("Detail distance cannot be negative: " + detailDistance);
+        this.detailDistance = detailDistance;
+        if (viewers != null) viewers.invalidate();
+        return this;
+    }
+
+    /**
+     * @see #withViewDistance(double)
+     * @since 13.0.0
+     */
+    public double getViewDistance() {
+        return viewDistance;
+    }
+
+    /**
+     * @see #withLevelOfDetail(double)
+     * @since 13.0.0
+     */
+    public double getLevelOfDetail() {
+        return detailDistance;
+    }
+
+    /**
+     * @return true if viewers are only computed once for every frame.
+     * @see #withViewDistance(double)
+     * @since 13.0.0
+     */
+    public boolean isCullingViewers() {
+        return viewDistance > 0 || detailDistance > 0;
+    }
+
+    /**
+     * Marks the start of a new frame, so the viewers are computed again for the next particle.
+     * This is only needed if the frame is spawned more than once in the same tick.
+     *
+     * @see #withViewDistance(double)
+     * @since 13.0.0
+     */
+    @NotNull
+    public ParticleDisplay updateViewers() {
+        if (viewers != null) viewers.invalidate();
+        return this;
+    }
+
+    /**
+     * Gets the viewers of the current frame, computing them if they're outdated.
+     *
+     * @param x the xyz of the particle, only used as the origin if this display has no location in the same world.
+     */
+    @NotNull
+    ParticleViewers getViewers(World world, double x, double y, double z) {
+        ParticleViewers viewers = this.viewers;
+        if (viewers == null) viewers = this.viewers = new ParticleViewers();
+        if (!viewers.isComputedFor(players, force, viewDistance, detailDistance)) viewers.invalidate();
+
+        Location origin = this.location;
+        if (origin != null && origin.getWorld() == world) {
+            // Displays that are moved to another location start a new frame.
+            double originX = origin.getX(), originY = origin.getY(), originZ = origin.getZ();
+            if (viewers.isStale(world, originX, originY, originZ))
+                viewers.update(players, force, viewDistance, detailDistance, world, originX, originY, originZ);
+        } else if (viewers.isStale(world)) {
+            viewers.update(players, force, viewDistance, detailDistance, world, x, y, z);
+        }
+        return viewers;
+    }
+
     /**
      * A displayed particle with force can be seen further
      * away for all player regardless of their particle
@@ -1220,6 +1352,10 @@ public class ParticleDisplay {
             display.rotations = new ArrayList<>(this.rotations);
         }
         display.data = data;
+        // Copies made by shapes during a frame should end up in the same batch.
+        display.batch = batch;
+        display.viewDistance = viewDistance;
+        display.detailDistance = detailDistance;
         return display;
     }
 
@@ -1297,7 +1433,7 @@ public class ParticleDisplay {
     @NotNull
     public List<Quaternion> getRotation(boolean forceUpdate) {
         if (this.rotations.isEmpty()) return new ArrayList<>();
-        if (forceUpdate) cachedFinalRotationQuaternions = null;
+        if (forceUpdate) invalidateRotations();
         if (cachedFinalRotationQuaternions == null) {
             this.cachedFinalRotationQuaternions = new ArrayList<>();
 
@@ -1315,6 +1451,39 @@ public class ParticleDisplay {
         return cachedFinalRotationQuaternions;
     }
 
+    private void invalidateRotations() {
+        this.cachedFinalRotationQuaternions = null;
+        this.cachedRotationComponents = null;
+    }
+
+    /**
+     * @return {@link #getRotation(boolean)} as primitives or null if there are no rotations.
+     */
+    @Nullable
+    private double[] getRotationComponents() {
+        if (this.rotations.isEmpty()) return null;
+        double[] components = this.cachedRotationComponents;
+        if (components == null) {
+            List<Quaternion> quaternions = getRotation(false);
+            components = new double[quaternions.size() * 8];
+            for (int i = 0; i < quaternions.size(); i++) {
+                Quaternion q = quaternions.get(i);
+                Quaternion inverse = q.inverse();
+                int index = i * 8;
+                components[index] = q.w;
+                components[index + 1] = q.x;
+                components[index + 2] = q.y;
+                components[index + 3] = q.z;
+                components[index + 4] = inverse.w;
+                components[index + 5] = inverse.x;
+                components[index + 6] = inverse.y;
+                components[index + 7] = inverse.z;
+            }
+            this.cachedRotationComponents = components;
+        }
+        return components;
+    }
+
     /**
      * Rotates the particle position based on this XYZ vector without overriding previous rotations.
      * The xyz values must be <b>radians</b> which represent the angles
@@ -1342,7 +1511,7 @@ public class ParticleDisplay {
             List<Rotation> finalRots = Arrays.stream(rotations).filter(x -> x.angle != 0).collect(Collectors.toList());
             if (!finalRots.isEmpty()) {
                 this.rotations.add(finalRots);
-                if (this.cachedFinalRotationQuaternions != null) this.cachedFinalRotationQuaternions.clear();
+                invalidateRotations();
             }
         }
 
@@ -1356,7 +1525,7 @@ public class ParticleDisplay {
         Objects.requireNonNull(rotation, "Null rotation");
         if (rotation.angle != 0) {
             this.rotations.add(Collections.singletonList(rotation));
-            if (this.cachedFinalRotationQuaternions != null) this.cachedFinalRotationQuaternions.clear();
+            invalidateRotations();
         }
 
         return this;
@@ -1368,6 +1537,7 @@ public class ParticleDisplay {
      */
     @Nullable
     public Location getLastLocation() {
+        if (lastLocation != null && lastLocation == scratchLocation) return cloneLocation(lastLocation);
         return lastLocation == null ? getLocation() : lastLocation;
     }
 
@@ -1380,33 +1550,62 @@ public class ParticleDisplay {
      */
     @Nullable
     public Location finalizeLocation(@Nullable Vector local) {
-        CalculationContext preContext = new CalculationContext(location, local);
-
-        if (this.preCalculation != null) this.preCalculation.accept(preContext);
-        if (!preContext.shouldSpawn) return null;
+        Location location = this.location;
+        if (this.preCalculation != null) {
+            CalculationContext preContext = new CalculationContext(location, local);
+            this.preCalculation.accept(preContext);
+            if (!preContext.shouldSpawn) return null;
+            location = preContext.location;
+            local = preContext.local;
+        }
 
-        Location location = preContext.location;
         if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
         // Exception check after preCalculation to account for dynamic location callers from withEntity()
 
-        local = preContext.local;
-        if (local != null && !rotations.isEmpty()) {
-            List<Quaternion> rotations = getRotation(false);
-            for (Quaternion grouped : rotations) {
-                local = Quaternion.rotate(local, grouped);
+        location = cloneLocation(location);
+        if (local != null) {
+            double[] rotations = getRotationComponents();
+            if (rotations != null) {
+                double[] point = {local.getX(), local.getY(), local.getZ()};
+                rotate(rotations, point);
+                local = new Vector(point[0], point[1], point[2]);
             }
+            location.add(local);
         }
 
-        location = cloneLocation(location);
-        if (local != null) location.add(local);
-
-        CalculationContext postContext = new CalculationContext(location, local);
-        if (this.postCalculation != null) this.postCalculation.accept(postContext);
-        if (!postContext.shouldSpawn) return null;
+        if (this.postCalculation != null) {
+            CalculationContext postContext = new CalculationContext(location, local);
+            this.postCalculation.accept(postContext);
+            if (!postContext.shouldSpawn) return null;
+        }
 
         return location;
     }
 
+    /**
+     * Applies all the {@link #rotations} to the xyz stored in the given array.
+     * Uses the same operations as {@link Quaternion#rotate(Vector, Quaternion)} without the intermediate objects:
+     * q * (0, x, y, z) * q<sup>-1</sup>
+     */
+    private static void rotate(double[] rotations, double[] point) {
+        double x = point[0], y = point[1], z = point[2];
+        for (int i = 0; i < rotations.length; i += 8) {
+            double w = rotations[i], qx = rotations[i + 1], qy = rotations[i + 2], qz = rotations[i + 3];
+            double t0 = 0 * w - x * qx - y * qy - z * qz;
+            double t1 = 0 * qx + x * w + y * qz - z * qy;
+            double t2 = 0 * qy - x * qz + y * w + z * qx;
+            double t3 = 0 * qz + x * qy - y * qx + z * w;
+
+            double iw = rotations[i + 4], ix = rotations[i + 5], iy = rotations[i + 6], iz = rotations[i + 7];
+            x = iw * t1 + ix * t0 + iy * t3 - iz * t2;
+            y = iw * t2 - ix * t3 + iy * t0 + iz * t1;
+            z = iw * t3 + ix * t2 - iy * t1 + iz * t0;
+        }
+        point[0] = x;
+        point[1] = y;
+        point[2] = z;
+    }
+
     public final class CalculationContext {
         private Location location;
         private Vector local;
@@ -1526,6 +1725,87 @@ public class ParticleDisplay {
         return particleDirection != null;
     }
 
+    /**
+     * Whether {@link #beginBatch()} is supported in this server version (v1.13+)
+     *
+     * @since 13.0.0
+     */
+    public static boolean supportsBatching() {
+        return ParticleBatch.isSupported();
+    }
+
+    /**
+     * Starts collecting every particle spawned by this display (and its copies) as packets instead of
+     * spawning them one by one, until {@link #flushBatch()} is called. The packets are built once and
+     * sent to every viewer together as a bundle (v1.19.4+) which is a lot faster for shapes with many particles.
+     * <p>
+     * Particles are spawned normally if batching isn't {@link #supportsBatching() supported}.
+     * A batch is meant for a single frame of particles and is not thread-safe.
+     *
+     * @see #batch(Runnable)
+     * @since 13.0.0
+     */
+    @NotNull
+    public ParticleDisplay beginBatch() {
+        if ((batch == null || batch.isClosed()) && ParticleBatch.isSupported()) batch = new ParticleBatch(location);
+        return this;
+    }
+
+    /**
+     * Sends all the particles collected since {@link #beginBatch()} to the players that can see
+     * them and stops batching. Does nothing if this display isn't batching.
+     *
+     * @since 13.0.0
+     */
+    public void flushBatch() {
+        ParticleBatch batch = this.batch;
+        if (batch == null) return;
+        this.batch = null;
+        batch.close();
+    }
+
+    /**
+     * Stops batching without sending the collected particles, so they can be flushed
+     * later by another thread. Used by {@link ParticleAnimation} to flush frames in the server thread.
+     *
+     * @return null if this display isn't batching.
+     */
+    @Nullable
+    ParticleBatch detachBatch() {
+        ParticleBatch batch = this.batch;
+        if (batch == null) return null;
+        this.batch = null;
+        return batch.detach();
+    }
+
+    /**
+     * Spawns all the particles of the given frame in a single batch.
+     * <pre>{@code
+     * display.batch(() -> Particles.sphere(3, 20, display));
+     * }</pre>
+     * If this display is already batching, the particles are added to that batch
+     * and are only sent when it's flushed.
+     *
+     * @param frame spawns the particles using this display.
+     * @see #beginBatch()
+     * @since 13.0.0
+     */
+    public void batch(@NotNull Runnable frame) {
+        ParticleBatch batch = this.batch;
+        if (batch != null && !batch.isClosed()) {
+            // Part of a bigger frame, which is flushed by whoever started it.
+            frame.run();
+            return;
+        }
+
+        beginBatch();
+        try {
+            frame.run();
+        } finally {
+            flushBatch();
+        }
+    }
+
     /**
      * Spawns the particle at the current location.
      *
@@ -1561,6 +1841,46 @@ public class ParticleDisplay {
         return spawn(finalizeLocation(new Vector(x, y, z)));
     }
 
+    /**
+     * Same as {@link #spawn(double, double, double)}, but doesn't allocate any objects for each particle
+     * when there are no {@link #preCalculation(Consumer) pre} or {@link #postCalculation(Consumer) post} calculations,
+     * since the spawned location isn't returned. Mostly used by shapes that spawn many particles at once.
+     *
+     * @return true if the particle was spawned.
+     * @since 13.0.0
+     */
+    public boolean spawnPoint(double x, double y, double z) {
+        if (preCalculation != null || postCalculation != null) return spawn(x, y, z) != null;
+
+        Location location = this.location;
+        if (location == null) throw new IllegalStateException("Attempting to spawn particle when no location is set");
+
+        double[] rotations = getRotationComponents();
+        if (rotations != null) {
+            double[] point = scratchPoint;
+            point[0] = x;
+            point[1] = y;
+            point[2] = z;
+            rotate(rotations, point);
+            x = point[0];
+            y = point[1];
+            z = point[2];
+        }
+
+        World world = location.getWorld();
+        Location scratch = this.scratchLocation;
+        if (scratch == null) scratch = this.scratchLocation = new Location(world, 0, 0, 0);
+        else if (scratch.getWorld() != world) scratch.setWorld(world);
+
+        scratch.setX(location.getX() + x);
+        scratch.setY(location.getY() + y);
+        scratch.setZ(location.getZ() + z);
+        scratch.setYaw(location.getYaw());
+        scratch.setPitch(location.getPitch());
+        spawn(scratch);
+        return true;
+    }
+
     /**
      * Displays the particle in the specified location.
      * This method does not support rotations if used directly.
@@ -1576,7 +1896,8 @@ public class ParticleDisplay {
         lastLocation = loc;
 
         Particle particle = this.particle.get();
-        Objects.requireNonNull(particle, () -> "Cannot spawn unsupported particle: " + particle);
+        // Not using Objects.requireNonNull() with a message supplier since it'd allocate the lambda for every particle.
+        if (particle == null) throw new NullPointerException("Cannot spawn unsupported particle: " + this.particle);
 
         // Compatibility for previous versions of ParticleDisplay where
         // count = 0 was required for certain particle data, e.g. directional particles.
@@ -1647,6 +1968,17 @@ public class ParticleDisplay {
         // The "extra" field has no effect on dust particles in some versions,
         // but in others it causes the colors to not display when set to 0.
         double extra = (this.particle == XParticle.DUST) ? 1 : this.extra;
+        if (batch != null) {
+            if (!batch.isClosed()) {
+                batch.add(this, particle, loc, count, dx, dy, dz, extra, data);
+                return;
+            }
+            batch = null;
+        }
+        if (isCullingViewers()) {
+            spawnToViewers(particle, loc, count, dx, dy, dz, extra, data);
+            return;
+        }
         if (players == null)
             if (ISFLAT)
                 loc.getWorld().spawnParticle(particle, loc, count, dx, dy, dz, extra, data, force);
@@ -1657,6 +1989,28 @@ public class ParticleDisplay {
         }
     }
 
+    /**
+     * Sends the particle to the viewers of the current frame.
+     * The packet is built once for all the viewers if {@link #supportsBatching() supported}.
+     */
+    private void spawnToViewers(Particle particle, Location loc, int count, double dx, double dy, double dz, double extra, Object data) {
+        ParticleViewers viewers = getViewers(loc.getWorld(), loc.getX(), loc.getY(), loc.getZ());
+        long index = viewers.nextParticle();
+        Object packet = null;
+
+        for (int viewer = 0; viewer < viewers.size(); viewer++) {
+            if (!viewers.sees(viewer, index)) continue;
+            Player player = viewers.getPlayer(viewer);
+
+            if (ParticleBatch.isSupported()) {
+                if (packet == null) packet = ParticleBatch.createPacket(particle, loc, count, force, dx, dy, dz, extra, data);
+                MinecraftConnection.sendPacket(player, packet);
+            } else {
+                player.spawnParticle(particle, loc, count, dx, dy, dz, extra, data);
+            }
+        }
+    }
+
     /**
      * Returns the nearest note color to the given RGB values.
      * The nearest color is returned as an index in the {@link #NOTE_COLORS} array.
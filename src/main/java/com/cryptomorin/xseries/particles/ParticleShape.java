@@ -0,0 +1,332 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.particles;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.bukkit.Location;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * The local points of a shape recorded once, so they can be spawned every tick without recalculating
+ * them again. The display's rotations and location are applied when the shape is {@link #spawn(ParticleDisplay) spawned}.
+ * <pre>{@code
+ * ParticleShape sphere = ParticleShape.sphere(3, 20);
+ * sphere.spawn(display.withLocation(player.getLocation()));
+ * }</pre>
+ * Shapes created using the static methods of this class are cached by their parameters.
+ * Only shapes that spawn their particles relative to the display's location can be recorded,
+ * shapes that are animated or random such as {@link Particles#star(int, int, double, double, double, double, boolean, int, ParticleDisplay)}
+ * are not supported.
+ *
+ * @see Particles
+ * @since 13.0.0
+ */
+public final class ParticleShape {
+    /**
+     * The maximum number of points of all the cached shapes combined.
+     * Can be changed with the {@code xseries.particles.shapeCachePoints} system property.
+     */
+    private static final int MAX_CACHED_POINTS = Integer.getInteger("xseries.particles.shapeCachePoints", 500_000);
+
+    /**
+     * Least recently used shapes are evicted first. Use {@link Cache#stats()} for hit/miss counts.
+     */
+    public static final Cache<Object, ParticleShape> CACHE = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_CACHED_POINTS)
+            .<Object, ParticleShape>weigher((key, shape) -> shape.size())
+            .recordStats()
+            .build();
+
+    /**
+     * The xyz of every point.
+     */
+    private final double[] points;
+    /**
+     * The xyz particle direction of every point, or null if the shape doesn't have any directions.
+     */
+    @Nullable
+    private final double[] directions;
+
+    private ParticleShape(double[] points, @Nullable double[] directions) {
+        this.points = points;
+        this.directions = directions;
+    }
+
+    /**
+     * Records the points spawned by the given shape.
+     * The shape is given a display that only records its points, so it must only use
+     * {@link ParticleDisplay#spawnPoint(double, double, double)}, {@link ParticleDisplay#spawn(double, double, double)},
+     * {@link ParticleDisplay#spawn(Vector)} and {@link ParticleDisplay#particleDirection(double, double, double)}.
+     *
+     * @param shape the shape to record, e.g. {@code display -> Particles.sphere(3, 20, display)}
+     * @return the recorded shape which isn't cached.
+     * @see #of(String, Consumer, double...)
+     */
+    @NotNull
+    public static ParticleShape record(@NotNull Consumer<ParticleDisplay> shape) {
+        Objects.requireNonNull(shape, "Cannot record null shape");
+        Recorder recorder = new Recorder();
+        shape.accept(recorder);
+        return recorder.build();
+    }
+
+    /**
+     * Gets the cached shape with the given name and parameters or {@link #record(Consumer) records} it.
+     *
+     * @param name       a unique name of the shape.
+     * @param shape      records the shape if it's not cached.
+     * @param parameters all the parameters that change the points of the shape.
+     */
+    @NotNull
+    public static ParticleShape of(@NotNull String name, @NotNull Consumer<ParticleDisplay> shape, double... parameters) {
+        Objects.requireNonNull(name, "Shape name cannot be null");
+        try {
+            return CACHE.get(new Key(name, parameters.clone()), () -> record(shape));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to record shape " + name + Arrays.toString(parameters), e.getCause());
+        }
+    }
+
+    /**
+     * @see Particles#circle(double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape circle(double radius, double rate) {
+        return of("circle", display -> Particles.circle(radius, rate, display), radius, rate);
+    }
+
+    /**
+     * @see Particles#circle(double, double, double, double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape circle(double radius, double radius2, double extension, double rate, double limit) {
+        return of("circle", display -> Particles.circle(radius, radius2, extension, rate, limit, display),
+                radius, radius2, extension, rate, limit);
+    }
+
+    /**
+     * @see Particles#sphere(double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape sphere(double radius, double rate) {
+        return of("sphere", display -> Particles.sphere(radius, rate, display), radius, rate);
+    }
+
+    /**
+     * @see Particles#ring(double, double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape ring(double rate, double radius, double tubeRadius) {
+        return of("ring", display -> Particles.ring(rate, radius, tubeRadius, display), rate, radius, tubeRadius);
+    }
+
+    /**
+     * @see Particles#polygon(int, int, double, double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape polygon(int points, int connection, double size, double rate, double extend) {
+        return of("polygon", display -> Particles.polygon(points, connection, size, rate, extend, display),
+                points, connection, size, rate, extend);
+    }
+
+    /**
+     * @see Particles#heart(double, double, double, double, double, ParticleDisplay)
+     */
+    @NotNull
+    public static ParticleShape heart(double cut, double cutAngle, double depth, double compressHeight, double rate) {
+        return of("heart", display -> Particles.heart(cut, cutAngle, depth, compressHeight, rate, display),
+                cut, cutAngle, depth, compressHeight, rate);
+    }
+
+    /**
+     * @return the number of points in this shape.
+     */
+    public int size() {
+        return points.length / 3;
+    }
+
+    /**
+     * Spawns all the points of this shape using the display's location and rotations.
+     * Particle directions are only applied if the display is {@link ParticleDisplay#isDirectional() directional}.
+     * Directions that the shape takes from the display's offset (e.g. the Y direction of {@link #circle(double, double)})
+     * use the offset of the given display.
+     * Every call is a new frame for {@link ParticleDisplay#withViewDistance(double) viewer culling}.
+     */
+    public void spawn(@NotNull ParticleDisplay display) {
+        display.updateViewers();
+        double[] points = this.points;
+        double[] directions = display.isDirectional() ? this.directions : null;
+        double offsetY = directions == null ? 0 : display.getOffset().getY();
+
+        for (int i = 0; i < points.length; i += 3) {
+            if (directions != null) {
+                double directionY = directions[i + 1];
+                if (Double.isNaN(directionY)) directionY = offsetY;
+                display.particleDirection(directions[i], directionY, directions[i + 2]);
+            }
+            display.spawnPoint(points[i], points[i + 1], points[i + 2]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ParticleShape{points=" + size() + ", directional=" + (directions != null) + '}';
+    }
+
+    private static final class Key {
+        private final String name;
+        private final double[] parameters;
+        private final int hashCode;
+
+        private Key(String name, double[] parameters) {
+            this.name = name;
+            this.parameters = parameters;
+            this.hashCode = name.hashCode() * 31 + Arrays.hashCode(parameters);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Key)) return false;
+            Key key = (Key) obj;
+            return name.equals(key.name) && Arrays.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A display that records the points instead of spawning them.
+     * It's always directional so shapes calculate their directions as well.
+     */
+    private static final class Recorder extends ParticleDisplay {
+        private double[] points = new double[3 * 64];
+        private double[] directions;
+        private int size;
+        private double directionX, directionY, directionZ;
+        private boolean hasDirection;
+
+        private void record(double x, double y, double z) {
+            int index = size * 3;
+            if (index == points.length) {
+                points = Arrays.copyOf(points, index * 2);
+                if (directions != null) directions = Arrays.copyOf(directions, index * 2);
+            }
+            points[index] = x;
+            points[index + 1] = y;
+            points[index + 2] = z;
+
+            if (hasDirection) {
+                if (directions == null) directions = new double[points.length];
+                directions[index] = directionX;
+                directions[index + 1] = directionY;
+                directions[index + 2] = directionZ;
+            }
+            size++;
+        }
+
+        private ParticleShape build() {
+            int length = size * 3;
+            return new ParticleShape(Arrays.copyOf(points, length), directions == null ? null : Arrays.copyOf(directions, length));
+        }
+
+        @Override
+        public boolean isDirectional() {
+            return true;
+        }
+
+        /**
+         * Some shapes use the offset's Y as their direction's Y, so it's recorded as NaN
+         * and replaced with the offset of the display that the shape is {@link #spawn(ParticleDisplay) spawned} with.
+         */
+        @NotNull
+        @Override
+        public Vector getOffset() {
+            return new Vector(0, Double.NaN, 0);
+        }
+
+        @NotNull
+        @Override
+        public ParticleDisplay particleDirection(double x, double y, double z) {
+            directionX = x;
+            directionY = y;
+            directionZ = z;
+            hasDirection = true;
+            return this;
+        }
+
+        @NotNull
+        @Override
+        public ParticleDisplay particleDirection(@Nullable Vector particleDirection) {
+            if (particleDirection == null) {
+                hasDirection = false;
+                return this;
+            }
+            return particleDirection(particleDirection.getX(), particleDirection.getY(), particleDirection.getZ());
+        }
+
+        @Override
+        public boolean spawnPoint(double x, double y, double z) {
+            record(x, y, z);
+            return true;
+        }
+
+        @Nullable
+        @Override
+        public Location spawn(double x, double y, double z) {
+            record(x, y, z);
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Location spawn(@Nullable Vector local) {
+            if (local == null) record(0, 0, 0);
+            else record(local.getX(), local.getY(), local.getZ());
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Location spawn() {
+            record(0, 0, 0);
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Location spawn(Location loc) {
+            throw new UnsupportedOperationException("Cannot record particles spawned at absolute locations: " + loc);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.particles;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The players that can see the particles of a single frame, computed once for the whole shape
+ * instead of for every particle.
+ * Players that are further than the {@link ParticleDisplay#withLevelOfDetail(double) detail distance}
+ * only receive every n-th particle based on their distance.
+ *
+ * @see ParticleDisplay#withViewDistance(double)
+ */
+final class ParticleViewers {
+    /**
+     * Viewers are computed again after a tick, so players and displays that move are always up-to-date
+     * even if the frames aren't {@link ParticleDisplay#updateViewers() marked}.
+     */
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    /**
+     * The distances in which the client renders particles.
+     */
+    private static final double VIEW_DISTANCE = 32, FORCED_VIEW_DISTANCE = 512;
+
+    private Player[] players = new Player[8];
+    private int[] strides = new int[8];
+    private int size;
+
+    /**
+     * The settings that the viewers were computed with, displays and batches with
+     * different settings shouldn't use the same viewers.
+     */
+    private Collection<Player> candidates;
+    private boolean force;
+    private double viewDistance, detailDistance;
+
+    private World world;
+    private double originX, originY, originZ;
+    private long updatedAt;
+    private boolean stale = true;
+    /**
+     * The index of the next particle in this frame, used for thinning out the particles.
+     */
+    private long particle;
+    private Location playerLocation;
+
+    /**
+     * Forces the viewers to be computed again for the next particle.
+     */
+    void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * @return true if the viewers were computed with the same settings, even if they're {@link #isStale(World) stale}.
+     */
+    boolean isComputedFor(@Nullable Collection<Player> visibleTo, boolean force, double viewDistance, double detailDistance) {
+        return candidates == visibleTo && this.force == force
+                && this.viewDistance == viewDistance && this.detailDistance == detailDistance;
+    }
+
+    /**
+     * @param x the xyz of the shape's origin.
+     */
+    boolean isStale(World world, double x, double y, double z) {
+        return stale || this.world != world || x != originX || y != originY || z != originZ
+                || System.nanoTime() - updatedAt > FRAME_NANOS;
+    }
+
+    /**
+     * Used when the display has no location, the origin is the first particle in the frame.
+     */
+    boolean isStale(World world) {
+        return stale || this.world != world || System.nanoTime() - updatedAt > FRAME_NANOS;
+    }
+
+    /**
+     * @param visibleTo      the players that can see the particles, or null for all the players in the world.
+     * @param force          whether the particles are {@link ParticleDisplay#forceSpawn(boolean) forced}.
+     * @param viewDistance   see {@link ParticleDisplay#withViewDistance(double)}
+     * @param detailDistance see {@link ParticleDisplay#withLevelOfDetail(double)}
+     * @param x              the xyz of the shape's origin.
+     */
+    void update(@Nullable Collection<Player> visibleTo, boolean force, double viewDistance, double detailDistance,
+                World world, double x, double y, double z) {
+        this.candidates = visibleTo;
+        this.force = force;
+        this.viewDistance = viewDistance;
+        this.detailDistance = detailDistance;
+
+        if (viewDistance <= 0) {
+            // Players can't see any chunks further than this anyway.
+            double serverViewDistance = Bukkit.getViewDistance() * 16;
+            viewDistance = Math.min(force ? FORCED_VIEW_DISTANCE : VIEW_DISTANCE, serverViewDistance);
+        }
+        double viewDistanceSquared = viewDistance * viewDistance;
+        double detailDistanceSquared = detailDistance * detailDistance;
+
+        Collection<Player> candidates = visibleTo == null ? world.getPlayers() : visibleTo;
+        if (playerLocation == null) playerLocation = new Location(world, 0, 0, 0);
+
+        int size = 0;
+        for (Player player : candidates) {
+            if (player.getWorld() != world) continue;
+
+            Location location = player.getLocation(playerLocation);
+            double dx = location.getX() - x;
+            double dy = location.getY() - y;
+            double dz = location.getZ() - z;
+            double distanceSquared = (dx * dx) + (dy * dy) + (dz * dz);
+            if (distanceSquared > viewDistanceSquared) continue;
+
+            int stride = 1;
+            if (detailDistance > 0 && distanceSquared > detailDistanceSquared) {
+                // Twice as far away, half the particles.
+                stride = (int) (Math.sqrt(distanceSquared) / detailDistance);
+            }
+
+            if (size == players.length) {
+                players = Arrays.copyOf(players, size * 2);
+                strides = Arrays.copyOf(strides, size * 2);
+            }
+            players[size] = player;
+            strides[size] = stride;
+            size++;
+        }
+
+        // Don't keep references to players that are no longer viewers.
+        if (size < this.size) Arrays.fill(players, size, this.size, null);
+        this.size = size;
+        this.world = world;
+        this.originX = x;
+        this.originY = y;
+        this.originZ = z;
+        this.updatedAt = System.nanoTime();
+        this.stale = false;
+        this.particle = 0;
+    }
+
+    /**
+     * @return the index of the next particle in this frame.
+     */
+    long nextParticle() {
+        return particle++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Player getPlayer(int viewer) {
+        return players[viewer];
+    }
+
+    int getStride(int viewer) {
+        return strides[viewer];
+    }
+
+    boolean sees(int viewer, long particle) {
+        int stride = strides[viewer];
+        return stride == 1 || particle % stride == 0;
+    }
+}
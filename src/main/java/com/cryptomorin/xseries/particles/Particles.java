@@ -86,6 +86,8 @@ import java.util.function.Supplier;
  * to either use {@link CompletableFuture#runAsync(Runnable)} or
  * {@link BukkitRunnable#runTaskTimerAsynchronously(Plugin, long, long)} for
  * smoothly animated shapes.
+ * Animations can also be computed in worker threads while only sending the particles
+ * in the server thread using {@link ParticleAnimation}.
  * For huge animations you can use splittable tasks.
  * https://www.spigotmc.org/threads/409003/
  * By "huge", the algorithm used to generate locations is considered. You should not spawn
@@ -105,6 +107,8 @@ import java.util.function.Supplier;
  * @author Crypto Morin
  * @version 7.2.0
  * @see ParticleDisplay
+ * @see ParticleShape
+ * @see ParticleAnimation
  * @see Particle
  * @see Location
  * @see Vector
@@ -303,7 +307,7 @@ public final class Particles {
                 display.particleDirection(directionX, display.getOffset().getY(), directionZ);
             }
 
-            display.spawn(x, 0, z);
+            display.spawnPoint(x, 0, z);
         }
     }
 
@@ -325,7 +329,7 @@ public final class Particles {
 
             // Now we can make an arrow or a right triangle if let x be equal to 0
             // But we want both sides to have particle.
-            for (double x = -count; x < count; x += rate) display.spawn(x, y, 0);
+            for (double x = -count; x < count; x += rate) display.spawnPoint(x, y, 0);
         }
     }
 
@@ -356,7 +360,7 @@ public final class Particles {
                 for (double theta = 0; theta < PII; theta += rateDiv) {
                     double x = radius * Math.sin(theta);
                     double z = radius * Math.cos(theta);
-                    display.spawn(x, 0, z);
+                    display.spawnPoint(x, 0, z);
                 }
 
                 dynamicRadius += radiusDiv;
@@ -499,7 +503,7 @@ public final class Particles {
                     double x2 = x + radius * Math.sin(theta2);
                     double y2 = y + radius * Math.cos(theta2);
 
-                    display.spawn(x2, y2, 0);
+                    display.spawnPoint(x2, y2, 0);
 
 //                locs.forEach((v, v2) -> {
 //                    ParticleDisplay dis = display.clone();
@@ -568,7 +572,7 @@ public final class Particles {
                 for (double theta = 0; theta < PII; theta += rateDiv) {
                     double x = dynamicRadius * Math.sin(theta);
                     double z = dynamicRadius * Math.cos(theta);
-                    display.spawn(x, 0, z);
+                    display.spawnPoint(x, 0, z);
                 }
 
                 // We're going to use normal numbers since the circle radius will be always changing
@@ -686,7 +690,7 @@ public final class Particles {
         for (double theta = start; theta <= end; theta += rate) {
             double x = radius * Math.cos(theta);
             double z = otherRadius * Math.sin(theta);
-            display.spawn(x, 0, z);
+            display.spawnPoint(x, 0, z);
         }
     }
 
@@ -726,7 +730,7 @@ public final class Particles {
                     double zDirection = -Math.sin(phi);
 
                     display.particleDirection(xDirection, 0, zDirection);
-                    display.spawn(x, 0, z);
+                    display.spawnPoint(x, 0, z);
 
                     // The modes are done by random math methods that are
                     // just randomly tested to give a different shape.
@@ -743,7 +747,7 @@ public final class Particles {
                         zDirection = -Math.sin(phi);
 
                         display.particleDirection(xDirection, 0, zDirection);
-                        display.spawn(x, 0, z);
+                        display.spawnPoint(x, 0, z);
                     }
                 }
 
@@ -818,7 +822,7 @@ public final class Particles {
                 for (double theta = 0; theta <= Math.PI; theta += rateDiv) {
                     double x = radius * Math.cos(theta);
                     double y = secondRadius * Math.sin(theta);
-                    display.spawn(x, y, 0);
+                    display.spawnPoint(x, y, 0);
                 }
 
                 radius += compact;
@@ -844,11 +848,11 @@ public final class Particles {
             // Our circle at the bottom.
             double x = Math.cos(theta);
             double z = Math.sin(theta);
-            display.spawn(radius * x, 0, radius * z);
+            display.spawnPoint(radius * x, 0, radius * z);
 
             // Slightly move the smaller circle to connect the openings.
             double smallerRadius = radius / 1.3;
-            display.spawn(smallerRadius * x + 0.8, 0, smallerRadius * z);
+            display.spawnPoint(smallerRadius * x + 0.8, 0, smallerRadius * z);
         }
     }
 
@@ -889,7 +893,7 @@ public final class Particles {
                 double yy = height * y1 * y2;
                 double zz = extend * z;
 
-                display.spawn(xx, yy, zz);
+                display.spawnPoint(xx, yy, zz);
             }
         }
     }
@@ -926,7 +930,7 @@ public final class Particles {
                     double zDirection = Math.sin(angle);
 
                     display.particleDirection(xDirection, 0, zDirection);
-                    display.spawn(x, 0, z);
+                    display.spawnPoint(x, 0, z);
                 }
             }
         };
@@ -1250,7 +1254,7 @@ public final class Particles {
                     display.particleDirection(directionX, directionY, directionZ);
                 }
 
-                display.spawn(x, y1, z);
+                display.spawnPoint(x, y1, z);
             }
         }
     }
@@ -1317,7 +1321,7 @@ public final class Particles {
                 double y = finalRadius * sin;
                 double z = tubeRadius * Math.sin(phi);
 
-                display.spawn(x, y, z);
+                display.spawnPoint(x, y, z);
             }
         }
     }
@@ -1406,7 +1410,7 @@ public final class Particles {
             double y = omega * (sin + cos);
             double z = omega * (cos - sin);
 
-            display.spawn(0, y, z);
+            display.spawnPoint(0, y, z);
         }
     }
 
@@ -1435,7 +1439,7 @@ public final class Particles {
 
                 for (double angle = 0; orbital > 0; angle += dist) {
                     orbit.rotate(ParticleDisplay.Rotation.of(angle, ParticleDisplay.Axis.Z));
-                    orbit.spawn(x, 0, z);
+                    orbit.spawnPoint(x, 0, z);
                     orbital--;
                 }
             }
@@ -1507,7 +1511,7 @@ public final class Particles {
                     double angle = i * distanceBetweenEachCirclePoints * extension + rotation;
                     double x = dynamicRadius * Math.cos(angle);
                     double z = dynamicRadius * Math.sin(angle);
-                    display.spawn(x, 0, z);
+                    display.spawnPoint(x, 0, z);
                 }
 
                 currentDistance += speed;
@@ -1639,9 +1643,9 @@ public final class Particles {
             // The two nucleotides on each DNA string.
             // Should be exactly facing each other with the same Y pos.
             Location nucleotide1 = display.getLocation().clone().add(x, y, z);
-            display.spawn(x, y, z);
+            display.spawnPoint(x, y, z);
             Location nucleotide2 = display.getLocation().clone().subtract(x, -y, z);
-            display.spawn(-x, y, -z);
+            display.spawnPoint(-x, y, -z);
 
             // If it's the appropriate distance for two nucleotides to form a hydrogen bond.
             // We don't care about the type of nucleotide. It's going to be one bond only.
@@ -1827,7 +1831,7 @@ public final class Particles {
             // the length in the last loop.
             // noinspection ConstantValue
             if (i > length) i = length;
-            clone.spawn(x * i, y * i, z * i);
+            clone.spawnPoint(x * i, y * i, z * i);
         }
     }
 
@@ -1852,7 +1856,7 @@ public final class Particles {
         // A simple 2D Shape
         for (double x = minX; x <= maxX; x += rate) {
             for (double y = minY; y <= maxY; y += rate) {
-                display.spawn(x - minX, y - minY, 0);
+                display.spawnPoint(x - minX, y - minY, 0);
             }
         }
     }
@@ -1930,7 +1934,7 @@ public final class Particles {
         for (double x = minX; x <= maxX; x += rate) {
             for (double y = minY; y <= maxY; y += rate) {
                 for (double z = minZ; z <= maxZ; z += rate) {
-                    display.spawn(x - minX, y - minY, z - minZ);
+                    display.spawnPoint(x - minX, y - minY, z - minZ);
                 }
             }
         }
@@ -1965,7 +1969,7 @@ public final class Particles {
                     // So we don't fill the cube itself.
                     // Another way is to use 6 loops, one 2 axis loop for each side.
                     if ((y == minY || y + rate > maxY) || (x == minX || x + rate > maxX) || (z == minZ || z + rate > maxZ)) {
-                        display.spawn(x - minX, y - minY, z - minZ);
+                        display.spawnPoint(x - minX, y - minY, z - minZ);
                     }
                 }
             }
@@ -2004,7 +2008,7 @@ public final class Particles {
                     if (x == minX || x + rate > maxX) components++;
                     if (y == minY || y + rate > maxY) components++;
                     if (z == minZ || z + rate > maxZ) components++;
-                    if (components >= 2) display.spawn(x - minX, y - minY, z - minZ);
+                    if (components >= 2) display.spawnPoint(x - minX, y - minY, z - minZ);
                 }
             }
         }
@@ -2079,7 +2083,7 @@ public final class Particles {
                         if (x == minX || x + rate > maxX) components++;
                         if (y == minY || y + rate > maxY) components++;
                         if (z == minZ || z + rate > maxZ) components++;
-                        if (components >= 2) display.spawn(x - minX, y - minY, z - minZ);
+                        if (components >= 2) display.spawnPoint(x - minX, y - minY, z - minZ);
                     }
                 }
             }
@@ -2201,7 +2205,7 @@ public final class Particles {
                     for (int proj = 0; proj < projected.length; proj++) projected[proj] *= size;
                     projected3D[i] = projected;
 
-                    display.spawn(projected[0], projected[1], projected[2]);
+                    display.spawnPoint(projected[0], projected[1], projected[2]);
                 }
 
                 for (int[] connection : connections) {
@@ -2318,7 +2322,7 @@ public final class Particles {
 
                 if (iteration != 0) continue;
                 // Color color = new Color(iteration | (iteration << 8));
-                display.spawn(x, y, 0);
+                display.spawnPoint(x, y, 0);
             }
         }
     }
@@ -2482,8 +2486,8 @@ public final class Particles {
         for (double i = 0; i < limit; i += rateDiv) {
             double y = radius * Math.sin(extension * i);
             double y2 = radius2 * Math.sin(extension * -i);
-            display.spawn(x, y, 0);
-            display.spawn(x, y2, 0);
+            display.spawnPoint(x, y, 0);
+            display.spawnPoint(x, y2, 0);
             x += 0.1;
         }
     }
@@ -2540,7 +2544,7 @@ public final class Particles {
             for (double pos = 0; pos < 1 + extend; pos += rate) {
                 double x1 = x + (deltaX * pos);
                 double z1 = z + (deltaZ * pos);
-                display.spawn(x1, 0, z1);
+                display.spawnPoint(x1, 0, z1);
             }
         }
     }
@@ -2651,13 +2655,13 @@ public final class Particles {
                     double x = times * Math.cos(theta);
                     double y = 2 * Math.exp(-0.1 * times) * Math.sin(times) + 1.5;
                     double z = times * Math.sin(theta);
-                    display.spawn(x, y, z);
+                    display.spawnPoint(x, y, z);
 
                     theta = theta + Math.PI / 64;
                     x = times * Math.cos(theta);
                     // y = 2 * Math.exp(-0.1 * times) * Math.sin(times) + 1.5;
                     z = times * Math.sin(theta);
-                    secDisplay.spawn(x, y, z);
+                    secDisplay.spawnPoint(x, y, z);
                 }
                 if (times > 20) {
                     done = true;
@@ -284,6 +284,10 @@ public enum XParticle implements XBase<XParticle, Particle> {
 
     public static final XRegistry<XParticle, Particle> REGISTRY = Data.REGISTRY;
 
+    static {
+        REGISTRY.seal();
+    }
+
     private final Particle particle;
 
     XParticle(String... names) {
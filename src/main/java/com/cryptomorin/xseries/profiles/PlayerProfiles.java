@@ -24,11 +24,12 @@ package com.cryptomorin.xseries.profiles;
 
 import com.cryptomorin.xseries.profiles.objects.transformer.ProfileTransformer;
 import com.cryptomorin.xseries.reflection.XReflection;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.Iterables;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.properties.Property;
 import com.mojang.authlib.properties.PropertyMap;
@@ -37,6 +38,9 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Objects;
@@ -62,7 +66,6 @@ public final class PlayerProfiles {
     private static final String TEXTURES_PROPERTY = "textures";
 
     public static final GameProfile NIL = createGameProfile(PlayerUUIDs.IDENTITY_UUID, XSERIES_SIG);
-    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 
 
     /**
@@ -130,6 +133,22 @@ public final class PlayerProfiles {
         }
     }
 
+    /**
+     * Retrieves the signature of a {@link Property}, handling differences between versions.
+     *
+     * @return null if the property isn't signed.
+     * @since 13.0.0
+     */
+    @Nullable
+    public static String getPropertySignature(@NotNull Property property) {
+        if (ProfilesCore.NULLABILITY_RECORD_UPDATE) return property.signature();
+        try {
+            return (String) ProfilesCore.Property_getSignature.invoke(property);
+        } catch (Throwable throwable) {
+            throw new IllegalArgumentException("Unable to get a property signature: " + property, throwable);
+        }
+    }
+
     /**
      * Checks if the provided {@link GameProfile} has a texture property.
      *
@@ -141,8 +160,18 @@ public final class PlayerProfiles {
         return getTextureProperty(profile).isPresent();
     }
 
+    /**
+     * Profiles created from texture hashes with the default textures value that'd be generated from the hash,
+     * shared by all the inputs that resolve to the same texture.
+     * Values are weakly referenced, so textures that are no longer used by any {@link com.cryptomorin.xseries.profiles.objects.Profileable}
+     * or item are removed.
+     */
+    private static final Cache<String, GameProfile> TEXTURE_PROFILES = CacheBuilder.newBuilder().weakValues().build();
+
     /**
      * Constructs a {@link GameProfile} using the provided texture hash and base64 string.
+     * The profile might be shared with other calls for the same texture, so it must not be modified.
+     * Use {@link #clone(GameProfile)} if needed.
      *
      * @param hash   The texture hash used to construct the profile's textures.
      * @param base64 The base64 string representing the profile's textures.
@@ -152,23 +181,124 @@ public final class PlayerProfiles {
      */
     @NotNull
     public static GameProfile profileFromHashAndBase64(String hash, String base64) {
+        GameProfile cached = TEXTURE_PROFILES.getIfPresent(hash);
+        if (cached != null && base64.equals(getTextureValue(cached))) return cached;
+
+        // The same texture can have different Base64 values, e.g. with a timestamp or skin model metadata.
+        // Only the default value that'd be generated from the hash itself is shared.
+        if (cached == null && base64.equals(texturesFromHash(hash))) return intern(hash, base64);
+        return createTexturedProfile(hash, base64);
+    }
+
+    /**
+     * Same as {@link #profileFromHashAndBase64(String, String)}, but the Base64 value
+     * is only generated from the hash if this texture isn't already cached.
+     *
+     * @param hash The texture hash used to construct the profile's textures.
+     * @return The shared {@link GameProfile} that must not be modified.
+     * @since 13.0.0
+     */
+    @NotNull
+    public static GameProfile profileFromHash(String hash) {
+        GameProfile cached = TEXTURE_PROFILES.getIfPresent(hash);
+        return cached != null ? cached : intern(hash, texturesFromHash(hash));
+    }
+
+    private static GameProfile intern(String hash, String base64) {
+        GameProfile profile = createTexturedProfile(hash, base64);
+        GameProfile cached = TEXTURE_PROFILES.asMap().putIfAbsent(hash, profile);
+        return cached == null ? profile : cached;
+    }
+
+    private static String texturesFromHash(String hash) {
+        return encodeBase64(TEXTURES_NBT_PROPERTY_PREFIX + TEXTURES_BASE_URL + hash + "\"}}}");
+    }
+
+    private static GameProfile createTexturedProfile(String hash, String base64) {
         java.util.UUID uuid = java.util.UUID.nameUUIDFromBytes(hash.getBytes(StandardCharsets.UTF_8));
         GameProfile profile = PlayerProfiles.createNamelessGameProfile(uuid);
         PlayerProfiles.setTexturesProperty(profile, base64);
         return profile;
     }
 
-    @SuppressWarnings("deprecation")
     public static void removeTimestamp(GameProfile profile) {
-        JsonObject jsonObject = Optional.ofNullable(getTextureValue(profile)).map(PlayerProfiles::decodeBase64)
-                .map((decoded) -> new JsonParser().parse(decoded).getAsJsonObject())
-                .orElse(null);
+        String value = getTextureValue(profile);
+        if (value == null) return;
+
+        String decoded = decodeBase64(value);
+        if (!decoded.contains("\"timestamp\"")) return;
+
+        // Copy the JSON token by token instead of parsing it into a tree and serializing it again.
+        StringWriter json = new StringWriter(decoded.length());
+        try (JsonReader reader = new JsonReader(new StringReader(decoded)); JsonWriter writer = new JsonWriter(json)) {
+            reader.setLenient(true);
+
+            // Mojang's format is pretty-printed, so let's keep that.
+            // The rest matches what Gson#toJson(JsonElement) used to produce.
+            writer.setIndent("  ");
+            writer.setHtmlSafe(true);
+            writer.setSerializeNulls(false);
+
+            boolean removed = false;
+            reader.beginObject();
+            writer.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (name.equals("timestamp")) {
+                    reader.skipValue();
+                    removed = true;
+                } else {
+                    writer.name(name);
+                    copyJson(reader, writer);
+                }
+            }
+            reader.endObject();
+            writer.endObject();
+
+            if (!removed) return;
+        } catch (IOException ex) {
+            throw new IllegalArgumentException("Invalid texture JSON for " + profile + ": " + decoded, ex);
+        }
 
-        if (jsonObject == null || !jsonObject.has("timestamp")) return;
-        jsonObject.remove("timestamp");
+        setTexturesProperty(profile, encodeBase64(json.toString()));
+    }
 
-        // Mojang's format is pretty-printed, so let's keep that.
-        setTexturesProperty(profile, encodeBase64(GSON.toJson(jsonObject)));
+    private static void copyJson(JsonReader reader, JsonWriter writer) throws IOException {
+        switch (reader.peek()) {
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                writer.beginObject();
+                while (reader.hasNext()) {
+                    writer.name(reader.nextName());
+                    copyJson(reader, writer);
+                }
+                reader.endObject();
+                writer.endObject();
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                writer.beginArray();
+                while (reader.hasNext()) copyJson(reader, writer);
+                reader.endArray();
+                writer.endArray();
+                break;
+            case STRING:
+                writer.value(reader.nextString());
+                break;
+            case NUMBER:
+                // Keeps the original representation, e.g. the timestamp's long value.
+                writer.value(new LazilyParsedNumber(reader.nextString()));
+                break;
+            case BOOLEAN:
+                writer.value(reader.nextBoolean());
+                break;
+            case NULL:
+                reader.nextNull();
+                writer.nullValue();
+                break;
+            default:
+                throw new IllegalStateException("Unexpected JSON token " + reader.peek() + " at " + reader);
+        }
     }
 
     /**
@@ -224,7 +354,15 @@ public final class PlayerProfiles {
     }
 
     public static void setTexturesProperty(GameProfile profile, String texture) {
-        Property property = new Property(TEXTURES_PROPERTY, texture);
+        setTexturesProperty(profile, texture, null);
+    }
+
+    /**
+     * @param signature the signature of the textures given by Mojang, if they were requested signed.
+     * @since 13.0.0
+     */
+    public static void setTexturesProperty(GameProfile profile, String texture, @Nullable String signature) {
+        Property property = signature == null ? new Property(TEXTURES_PROPERTY, texture) : new Property(TEXTURES_PROPERTY, texture, signature);
         PropertyMap properties = profile.getProperties();
         properties.asMap().remove(TEXTURES_PROPERTY);
         properties.put(TEXTURES_PROPERTY, property);
@@ -24,6 +24,8 @@ package com.cryptomorin.xseries.profiles;
 
 import com.cryptomorin.xseries.profiles.mojang.MojangAPI;
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.bukkit.Bukkit;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -31,8 +33,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.regex.Matcher;
@@ -50,11 +51,81 @@ public final class PlayerUUIDs {
             "([0-9a-fA-F]{8})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{4})([0-9a-fA-F]{12})"
     );
 
+    /**
+     * The maximum number of players kept in each of the caches below.
+     * Can be changed with the {@code xseries.profiles.uuidCacheSize} system property.
+     */
+    private static final int MAX_CACHED_PLAYERS = Integer.getInteger("xseries.profiles.uuidCacheSize", 10_000);
+
     /**
      * We can't use Guava's BiMap here since non-existing players are cached too.
+     * These are bounded, least recently used entries are evicted first. Use {@link Cache#stats()} for hit/miss counts.
+     */
+    public static final Cache<UUID, UUID> OFFLINE_TO_ONLINE = newCache(), ONLINE_TO_OFFLINE = newCache();
+
+    /**
+     * Keyed by {@link #normalizeUsername(String) normalized usernames}. Non-existing players are mapped to {@link #IDENTITY_UUID}.
+     */
+    public static final Cache<String, UUID> USERNAME_TO_ONLINE = newCache();
+
+    /**
+     * {@link #normalizeUsername(String) Normalized usernames} to the case-corrected username given by Mojang.
+     */
+    public static final Cache<String, String> LOWERCASE_TO_USERNAME = newCache();
+
+    private static <K, V> Cache<K, V> newCache() {
+        return CacheBuilder.newBuilder()
+                .maximumSize(MAX_CACHED_PLAYERS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Usernames are case-insensitive.
+     */
+    @NotNull
+    public static String normalizeUsername(@NotNull String username) {
+        return username.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * @return the cached real UUID of this username, {@link #IDENTITY_UUID} if the player doesn't exist
+     * or null if it's not cached.
      */
-    public static final Map<UUID, UUID> OFFLINE_TO_ONLINE = new HashMap<>(), ONLINE_TO_OFFLINE = new HashMap<>();
-    public static final Map<String, UUID> USERNAME_TO_ONLINE = new HashMap<>();
+    @Nullable
+    public static UUID getCachedRealUUID(@NotNull String username) {
+        return USERNAME_TO_ONLINE.getIfPresent(normalizeUsername(username));
+    }
+
+    /**
+     * @return the case-corrected username if the player was found before, otherwise null.
+     */
+    @Nullable
+    public static String getCaseCorrectedUsername(@NotNull String username) {
+        return LOWERCASE_TO_USERNAME.getIfPresent(normalizeUsername(username));
+    }
+
+    /**
+     * Caches the results of a username to UUID request.
+     *
+     * @param username    the requested username.
+     * @param realUUID    the online UUID, null or {@link #IDENTITY_UUID} if the player doesn't exist.
+     * @param offlineUUID the offline UUID used by this server for the player.
+     */
+    public static void cacheRealUUID(@NotNull String username, @Nullable UUID realUUID, @NotNull UUID offlineUUID) {
+        if (realUUID == null) realUUID = IDENTITY_UUID;
+        if (realUUID != IDENTITY_UUID) ONLINE_TO_OFFLINE.put(realUUID, offlineUUID);
+        OFFLINE_TO_ONLINE.put(offlineUUID, realUUID);
+        USERNAME_TO_ONLINE.put(normalizeUsername(username), realUUID);
+    }
+
+    /**
+     * Same as {@link #cacheRealUUID(String, UUID, UUID)} for responses that contain the case-corrected username.
+     */
+    public static void cacheCaseCorrectedUUID(@NotNull String caseCorrectedUsername, @NotNull UUID realUUID) {
+        cacheRealUUID(caseCorrectedUsername, realUUID, getOfflineUUID(caseCorrectedUsername));
+        LOWERCASE_TO_USERNAME.put(normalizeUsername(caseCorrectedUsername), caseCorrectedUsername);
+    }
 
     public static UUID UUIDFromDashlessString(String dashlessUUIDString) {
         Matcher matcher = UUID_NO_DASHES.matcher(dashlessUUIDString);
@@ -85,7 +156,7 @@ public final class PlayerUUIDs {
             throw new IllegalArgumentException("Username is null or empty: " + username);
 
         UUID offlineUUID = getOfflineUUID(username);
-        UUID realUUID = USERNAME_TO_ONLINE.get(username);
+        UUID realUUID = getCachedRealUUID(username);
         boolean cached = realUUID != null;
         if (realUUID == null) {
             try {
@@ -93,9 +164,8 @@ public final class PlayerUUIDs {
                 if (realUUID == null) {
                     ProfileLogger.debug("Caching null for {} ({}) because it doesn't exist.", username, offlineUUID);
                     realUUID = IDENTITY_UUID; // Player not found, we should cache this information.
-                } else ONLINE_TO_OFFLINE.put(realUUID, offlineUUID);
-                OFFLINE_TO_ONLINE.put(offlineUUID, realUUID);
-                USERNAME_TO_ONLINE.put(username, realUUID);
+                }
+                cacheRealUUID(username, realUUID, offlineUUID);
             } catch (IOException e) {
                 throw new IllegalStateException("Error while getting real UUID of player: " + username, e);
             }
@@ -125,7 +195,7 @@ public final class PlayerUUIDs {
         // OfflinePlayer player = Bukkit.getOfflinePlayer(uuid);
         // if (!player.hasPlayedBefore()) throw new IllegalStateException("Player with UUID " + uuid + " doesn't exist.");
 
-        UUID realUUID = OFFLINE_TO_ONLINE.get(uuid);
+        UUID realUUID = OFFLINE_TO_ONLINE.getIfPresent(uuid);
         boolean cached = realUUID != null;
         if (realUUID == null) {
             try {
@@ -133,9 +203,8 @@ public final class PlayerUUIDs {
                 if (realUUID == null) {
                     ProfileLogger.debug("Caching null for {} ({}) because it doesn't exist.", username, uuid);
                     realUUID = IDENTITY_UUID; // Player not found, we should cache this information.
-                } else ONLINE_TO_OFFLINE.put(realUUID, uuid);
-                OFFLINE_TO_ONLINE.put(uuid, realUUID);
-                USERNAME_TO_ONLINE.put(username, realUUID);
+                }
+                cacheRealUUID(username, realUUID, uuid);
             } catch (IOException e) {
                 throw new IllegalStateException("Error while getting real UUID of player: " + username + " (" + uuid + ')', e);
             }
@@ -58,7 +58,7 @@ public final class ProfilesCore {
             MinecraftSessionService_fillProfileProperties, GameProfileCache_get$profileByName$, GameProfileCache_get$profileByUUID$, CACHE_PROFILE,
             CraftMetaSkull_profile$getter, CraftMetaSkull_profile$setter,
             CraftSkull_profile$setter, CraftSkull_profile$getter,
-            Property_getValue,
+            Property_getValue, Property_getSignature,
             UserCache_getNextOperation,
             UserCacheEntry_getProfile, UserCacheEntry_setLastAccess,
             ResolvableProfile$constructor, ResolvableProfile_gameProfile;
@@ -205,6 +205,8 @@ public final class ProfilesCore {
 
         Property_getValue = NULLABILITY_RECORD_UPDATE ? null :
                 ns.of(Property.class).method("public String getValue()").unreflect();
+        Property_getSignature = NULLABILITY_RECORD_UPDATE ? null :
+                ns.of(Property.class).method("public String getSignature()").unreflect();
 
         PROXY = proxy;
         USER_CACHE = userCache;
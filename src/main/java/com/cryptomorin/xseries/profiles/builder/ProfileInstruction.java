@@ -31,6 +31,7 @@ import com.cryptomorin.xseries.profiles.mojang.ProfileRequestConfiguration;
 import com.cryptomorin.xseries.profiles.objects.DelegateProfileable;
 import com.cryptomorin.xseries.profiles.objects.ProfileContainer;
 import com.cryptomorin.xseries.profiles.objects.Profileable;
+import com.cryptomorin.xseries.reflection.XReflection;
 import com.mojang.authlib.GameProfile;
 import org.bukkit.block.BlockState;
 import org.bukkit.inventory.ItemStack;
@@ -45,6 +46,9 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 /**
@@ -72,6 +76,7 @@ public final class ProfileInstruction<T> implements DelegateProfileable {
     private ProfileRequestConfiguration profileRequestConfiguration;
 
     private boolean lenient = false;
+    private boolean hedged = false;
 
     protected ProfileInstruction(ProfileContainer<T> profileContainer) {
         this.profileContainer = profileContainer;
@@ -106,6 +111,25 @@ public final class ProfileInstruction<T> implements DelegateProfileable {
         return this;
     }
 
+    /**
+     * Resolves the main profile and all the {@link #fallback(Profileable...) fallbacks} at the same time
+     * instead of trying them one by one. The main profile is resolved on the calling thread and the fallbacks
+     * on {@link PlayerProfileFetcherThread#EXECUTOR}. The first profile in order that succeeds is still the one
+     * that's used, and the rest that haven't started yet are cancelled.
+     * <p>
+     * This is useful when the main profile might need network requests that fail (e.g. unknown players)
+     * since the worst-case time is the slowest single request instead of all of them combined.
+     * Requests that already started can't be stopped, but their results are still cached.
+     *
+     * @since 13.0.0
+     */
+    @NotNull
+    @Contract(value = "-> this", mutates = "this")
+    public ProfileInstruction<T> hedged() {
+        this.hedged = true;
+        return this;
+    }
+
     /**
      * The current profile of the item/block (not the profile provided in {@link #profile(Profileable)})
      */
@@ -198,28 +222,37 @@ public final class ProfileInstruction<T> implements DelegateProfileable {
         tries.addAll(fallbacks);
         if (lenient) tries.add(XSkull.getDefaultProfile());
 
+        List<HedgedAttempt> attempts = hedged && tries.size() > 1 ? HedgedAttempt.start(tries) : null;
         boolean success = false;
         boolean tryingFallbacks = false;
-        for (Profileable profileable : tries) {
-            try {
-                GameProfile gameProfile = profileable.getDisposableProfile();
-                if (gameProfile != null) {
-                    profileContainer.setProfile(gameProfile);
-                    success = true;
-                    break;
-                } else {
+        try {
+            for (int i = 0; i < tries.size(); i++) {
+                Profileable profileable = tries.get(i);
+                try {
+                    GameProfile gameProfile = attempts == null ? profileable.getDisposableProfile() : attempts.get(i).await();
+                    if (gameProfile != null) {
+                        profileContainer.setProfile(gameProfile);
+                        success = true;
+                        break;
+                    } else {
+                        if (exception == null) {
+                            exception = new ProfileChangeException("Could not set the profile for " + profileContainer);
+                        }
+                        exception.addSuppressed(new InvalidProfileException(profileable.toString(), "Profile doesn't have a value: " + profileable));
+                        tryingFallbacks = true;
+                    }
+                } catch (ProfileException ex) {
                     if (exception == null) {
                         exception = new ProfileChangeException("Could not set the profile for " + profileContainer);
                     }
-                    exception.addSuppressed(new InvalidProfileException(profileable.toString(), "Profile doesn't have a value: " + profileable));
+                    exception.addSuppressed(ex);
                     tryingFallbacks = true;
                 }
-            } catch (ProfileException ex) {
-                if (exception == null) {
-                    exception = new ProfileChangeException("Could not set the profile for " + profileContainer);
-                }
-                exception.addSuppressed(ex);
-                tryingFallbacks = true;
+            }
+        } finally {
+            // Also stop the remaining attempts if setting the profile throws an unexpected exception.
+            if (attempts != null) {
+                for (HedgedAttempt attempt : attempts) attempt.cancel();
             }
         }
 
@@ -275,4 +308,56 @@ public final class ProfileInstruction<T> implements DelegateProfileable {
     public CompletableFuture<T> applyAsync() {
         return CompletableFuture.supplyAsync(this::apply, PlayerProfileFetcherThread.EXECUTOR);
     }
-}
\ No newline at end of file
+
+    /**
+     * A profile resolution for {@link #hedged()} mode that runs on either the executor or
+     * the thread that needs its result, whichever gets to it first. This way, the thread that
+     * waits for the results never waits on a task that's stuck in the executor's queue.
+     */
+    private static final class HedgedAttempt implements Runnable {
+        private final Profileable profileable;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CompletableFuture<GameProfile> result = new CompletableFuture<>();
+
+        private HedgedAttempt(Profileable profileable) {this.profileable = profileable;}
+
+        private static List<HedgedAttempt> start(List<Profileable> tries) {
+            List<HedgedAttempt> attempts = new ArrayList<>(tries.size());
+            for (Profileable profileable : tries) attempts.add(new HedgedAttempt(profileable));
+
+            // The main profile is resolved by the calling thread.
+            for (int i = 1; i < attempts.size(); i++) {
+                try {
+                    PlayerProfileFetcherThread.EXECUTOR.execute(attempts.get(i));
+                } catch (RejectedExecutionException ex) {
+                    // It'll be resolved by the calling thread when needed.
+                    ProfileLogger.debug("Hedged profile request was rejected for {}: {}", tries.get(i), ex);
+                }
+            }
+            return attempts;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) return;
+            try {
+                result.complete(profileable.getDisposableProfile());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        private GameProfile await() {
+            run();
+            try {
+                return result.join();
+            } catch (CompletionException ex) {
+                throw XReflection.throwCheckedException(ex.getCause());
+            }
+        }
+
+        private void cancel() {
+            if (claimed.compareAndSet(false, true)) result.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.profiles.mojang;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Proxy;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Sends the HTTP requests of {@link MinecraftClient}.
+ * This can be changed using {@link MinecraftClient#setTransport(HttpTransport)}, e.g. to
+ * use a different HTTP library or to test against a local server.
+ *
+ * @see URLConnectionTransport
+ * @see JavaHttpClientTransport
+ */
+@ApiStatus.Internal
+public interface HttpTransport {
+    /**
+     * Sends the request and waits for the response headers.
+     * The body should be streamed from the connection instead of being read before returning.
+     */
+    @NotNull
+    Response send(@NotNull Request request) throws IOException;
+
+    /**
+     * Uses {@link JavaHttpClientTransport} if it's supported, which reuses connections and supports HTTP/2,
+     * otherwise {@link URLConnectionTransport}.
+     */
+    @NotNull
+    static HttpTransport createDefault(@NotNull Proxy proxy) {
+        HttpTransport transport = JavaHttpClientTransport.create(proxy);
+        return transport != null ? transport : new URLConnectionTransport(proxy);
+    }
+
+    final class Request {
+        public final String method;
+        public final URI uri;
+        public final Map<String, String> headers;
+        @Nullable public final byte[] body;
+        public final Duration connectTimeout, readTimeout;
+
+        public Request(@NotNull String method, @NotNull URI uri, @NotNull Map<String, String> headers, @Nullable byte[] body,
+                       @NotNull Duration connectTimeout, @NotNull Duration readTimeout) {
+            this.method = Objects.requireNonNull(method);
+            this.uri = Objects.requireNonNull(uri);
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            this.body = body;
+            this.connectTimeout = Objects.requireNonNull(connectTimeout);
+            this.readTimeout = Objects.requireNonNull(readTimeout);
+        }
+
+        @Override
+        public String toString() {
+            return method + ' ' + uri;
+        }
+    }
+
+    interface Response extends Closeable {
+        int statusCode();
+
+        /**
+         * The response body, or the error body for unsuccessful status codes.
+         * Closing the response should close this stream, and is what allows the connection to be reused.
+         *
+         * @return null if there is no body.
+         */
+        @Nullable
+        InputStream body() throws IOException;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.profiles.mojang;
+
+import com.cryptomorin.xseries.profiles.ProfileLogger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends requests using {@code java.net.http.HttpClient} (Java 11+) which keeps a pool of connections
+ * and uses HTTP/2 when the server supports it, so multiple requests can share a single TLS connection.
+ * <p>
+ * Since XSeries is compiled for Java 8, the client is accessed using reflection.
+ * Reflection is only used to call the methods, which is negligible compared to the requests themselves.
+ * <p>
+ * The client's request timeout only applies until the response headers are received,
+ * so the response body has to be read within the same {@link Request#readTimeout read timeout}
+ * after that, otherwise the stream is closed and a {@link SocketTimeoutException} is thrown.
+ */
+@ApiStatus.Internal
+public final class JavaHttpClientTransport implements HttpTransport {
+    /**
+     * Some headers are controlled by the client itself and throw an exception if they're set.
+     */
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final class Watchdog {
+        /**
+         * Only used to close the response streams that took too long, nothing is read on this thread.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(run -> {
+            Thread thread = new Thread(run, "XSeries HttpClient Watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final Object client;
+    private final Method newRequestBuilder, timeout, header, method, build, ofByteArray, noBody, send, ofInputStream,
+            statusCode, body;
+
+    private JavaHttpClientTransport(Object client, Class<?> httpClient) throws ReflectiveOperationException {
+        this.client = client;
+
+        Class<?> httpRequest = Class.forName("java.net.http.HttpRequest");
+        Class<?> requestBuilder = Class.forName("java.net.http.HttpRequest$Builder");
+        Class<?> bodyPublisher = Class.forName("java.net.http.HttpRequest$BodyPublisher");
+        Class<?> bodyPublishers = Class.forName("java.net.http.HttpRequest$BodyPublishers");
+        Class<?> httpResponse = Class.forName("java.net.http.HttpResponse");
+        Class<?> bodyHandler = Class.forName("java.net.http.HttpResponse$BodyHandler");
+        Class<?> bodyHandlers = Class.forName("java.net.http.HttpResponse$BodyHandlers");
+
+        this.newRequestBuilder = httpRequest.getMethod("newBuilder", URI.class);
+        this.timeout = requestBuilder.getMethod("timeout", Duration.class);
+        this.header = requestBuilder.getMethod("header", String.class, String.class);
+        this.method = requestBuilder.getMethod("method", String.class, bodyPublisher);
+        this.build = requestBuilder.getMethod("build");
+        this.ofByteArray = bodyPublishers.getMethod("ofByteArray", byte[].class);
+        this.noBody = bodyPublishers.getMethod("noBody");
+        this.send = httpClient.getMethod("send", httpRequest, bodyHandler);
+        this.ofInputStream = bodyHandlers.getMethod("ofInputStream");
+        this.statusCode = httpResponse.getMethod("statusCode");
+        this.body = httpResponse.getMethod("body");
+    }
+
+    /**
+     * @param proxy only {@link Proxy.Type#HTTP} proxies are supported by the client.
+     * @return null if the client is not available or doesn't support the proxy.
+     */
+    @Nullable
+    public static JavaHttpClientTransport create(@NotNull Proxy proxy) {
+        if (proxy.type() == Proxy.Type.SOCKS) return null;
+
+        Class<?> httpClient;
+        try {
+            httpClient = Class.forName("java.net.http.HttpClient");
+        } catch (ClassNotFoundException ex) {
+            return null;
+        }
+
+        try {
+            Class<?> builderClass = Class.forName("java.net.http.HttpClient$Builder");
+            Class<?> version = Class.forName("java.net.http.HttpClient$Version");
+            Class<?> redirect = Class.forName("java.net.http.HttpClient$Redirect");
+
+            Object builder = httpClient.getMethod("newBuilder").invoke(null);
+            builderClass.getMethod("version", version).invoke(builder, version.getField("HTTP_2").get(null));
+            builderClass.getMethod("followRedirects", redirect).invoke(builder, redirect.getField("NORMAL").get(null));
+            builderClass.getMethod("connectTimeout", Duration.class).invoke(builder, Duration.ofSeconds(10));
+            if (proxy.type() == Proxy.Type.HTTP) {
+                ProxySelector selector = (ProxySelector) ProxySelector.class
+                        .getMethod("of", InetSocketAddress.class)
+                        .invoke(null, (InetSocketAddress) proxy.address());
+                builderClass.getMethod("proxy", ProxySelector.class).invoke(builder, selector);
+            }
+
+            Object client = builderClass.getMethod("build").invoke(builder);
+            return new JavaHttpClientTransport(client, httpClient);
+        } catch (Throwable ex) {
+            ProfileLogger.LOGGER.error("Failed to create java.net.http.HttpClient, falling back to HttpURLConnection", ex);
+            return null;
+        }
+    }
+
+    @Override
+    public @NotNull Response send(@NotNull Request request) throws IOException {
+        try {
+            Object builder = newRequestBuilder.invoke(null, request.uri);
+            // The connect timeout is set for the whole client.
+            timeout.invoke(builder, request.readTimeout);
+            for (Map.Entry<String, String> entry : request.headers.entrySet()) {
+                if (entry.getKey().equalsIgnoreCase(CONTENT_LENGTH)) continue;
+                header.invoke(builder, entry.getKey(), entry.getValue());
+            }
+            Object publisher = request.body == null ? noBody.invoke(null) : ofByteArray.invoke(null, (Object) request.body);
+            method.invoke(builder, request.method, publisher);
+
+            Object response = send.invoke(client, build.invoke(builder), ofInputStream.invoke(null));
+            int status = (int) statusCode.invoke(response);
+            InputStream stream = new TimeoutInputStream((InputStream) body.invoke(response), request.readTimeout);
+            return new Response() {
+                @Override
+                public int statusCode() {
+                    return status;
+                }
+
+                @Override
+                public @Nullable InputStream body() {
+                    return stream;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    stream.close();
+                }
+            };
+        } catch (InvocationTargetException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Request was interrupted: " + request);
+                interrupted.initCause(cause);
+                throw interrupted;
+            }
+            throw new IOException("Failed to send request " + request, cause);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException("Cannot access HttpClient methods", ex);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "JavaHttpClientTransport[" + client + ']';
+    }
+
+    /**
+     * Closes the stream if the body wasn't fully read before the timeout.
+     * Closing the client's stream makes the blocked reads return, which are then reported as a timeout.
+     */
+    private static final class TimeoutInputStream extends FilterInputStream {
+        private final Duration timeout;
+        private final ScheduledFuture<?> watchdog;
+        private volatile boolean timedOut;
+
+        private TimeoutInputStream(InputStream in, Duration timeout) {
+            super(in);
+            this.timeout = timeout;
+            this.watchdog = Watchdog.SCHEDULER.schedule(this::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        }
+
+        private void expire() {
+            timedOut = true;
+            try {
+                in.close();
+            } catch (IOException ex) {
+                ProfileLogger.debug("Failed to close the timed out response stream: {}", ex);
+            }
+        }
+
+        private int checkTimeout(int read) throws SocketTimeoutException {
+            if (timedOut) throw new SocketTimeoutException("Response body was not read within " + timeout);
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try {
+                return checkTimeout(super.read());
+            } catch (IOException ex) {
+                checkTimeout(-1);
+                throw ex;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try {
+                return checkTimeout(super.read(b, off, len));
+            } catch (IOException ex) {
+                checkTimeout(-1);
+                throw ex;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            watchdog.cancel(false);
+            super.close();
+        }
+    }
+}
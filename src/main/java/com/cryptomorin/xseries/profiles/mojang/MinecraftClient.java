@@ -27,8 +27,6 @@ import com.cryptomorin.xseries.profiles.ProfilesCore;
 import com.cryptomorin.xseries.profiles.exceptions.MojangAPIException;
 import com.cryptomorin.xseries.profiles.exceptions.MojangAPIRetryException;
 import com.cryptomorin.xseries.reflection.XReflection;
-import com.google.common.base.Charsets;
-import com.google.common.io.CharStreams;
 import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.internal.Streams;
@@ -42,12 +40,17 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiFunction;
 
@@ -75,10 +78,26 @@ public class MinecraftClient {
             " (" + System.getProperty("os.name") + "; " + System.getProperty("os.version") + "; " +
             System.getProperty("java.vendor") + "; " + System.getProperty("java.version") + ") " +
             Bukkit.getName() + '/' + Bukkit.getBukkitVersion() + ' ' + Bukkit.getVersion();
+    private static volatile HttpTransport transport = HttpTransport.createDefault(PROXY);
+
     private final String method;
     private final URI baseURL;
     private final RateLimiter rateLimiter;
 
+    /**
+     * Changes how the requests of all clients are sent.
+     *
+     * @see HttpTransport#createDefault(Proxy)
+     */
+    public static void setTransport(@NotNull HttpTransport transport) {
+        MinecraftClient.transport = Objects.requireNonNull(transport, "Transport is null");
+    }
+
+    @NotNull
+    public static HttpTransport getTransport() {
+        return transport;
+    }
+
     @SuppressWarnings("ReturnOfInnerClass")
     public Session session(@Nullable ProfileRequestConfiguration config) {
         Session session = new Session();
@@ -96,6 +115,10 @@ public class MinecraftClient {
         this.rateLimiter = rateLimiter;
     }
 
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
     private static String totalReq() {
         return " (total: " + TOTAL_REQUESTS.getEffectiveRequestsCount() + ')';
     }
@@ -109,9 +132,12 @@ public class MinecraftClient {
                 retryDelay = Duration.ofSeconds(5);
         private int retries;
         private boolean waitInQueue = true;
+        /**
+         * Whether the rate limiter was already acquired for the next request by {@link #requestAsync(ResponseParser, Executor)}.
+         */
+        private boolean reserved;
         private Object body;
         private String append;
-        private HttpURLConnection connection;
         private BiFunction<Session, Throwable, Boolean> errorHandler;
 
         private void debug(String message, Object... vars) {
@@ -160,10 +186,26 @@ public class MinecraftClient {
 
         @Nullable
         public JsonElement request() throws IOException, MojangAPIException {
+            return request(Streams::parse);
+        }
+
+        /**
+         * Same as {@link #request()}, but the response is decoded directly from the
+         * response stream by the given parser instead of building a JSON tree first.
+         * The parser is not called for "404 Not Found" or empty responses.
+         *
+         * @param parser the decoder that reads the successful response body.
+         * @return the decoded response, or null if there was no response.
+         * @since 13.0.0
+         */
+        @Nullable
+        public <T> T request(@NotNull ResponseParser<T> parser) throws IOException, MojangAPIException {
+            Objects.requireNonNull(parser, "Response parser cannot be null");
             try {
-                JsonElement response = request0();
+                T response = request0(parser);
                 debug("Received response: {}", response);
-                return response == null ? null : (response.isJsonNull() ? null : response);
+                if (response instanceof JsonElement && ((JsonElement) response).isJsonNull()) return null;
+                return response;
             } catch (Exception ex) {
                 if (retries > 0) {
                     retries--;
@@ -175,20 +217,49 @@ public class MinecraftClient {
                             throw new IllegalStateException("Mojang API retry thread was interrupted unexpectedly", e);
                         }
                     }
-                    return request();
+                    return request(parser);
                 }
                 if (errorHandler == null) throw ex;
                 else {
                     Boolean shouldRetry = errorHandler.apply(this, ex);
-                    if (shouldRetry == null || shouldRetry) return request();
+                    if (shouldRetry == null || shouldRetry) return request(parser);
                     else throw ex;
                 }
             }
         }
 
+        /**
+         * Same as {@link #request(ResponseParser)}, but waits for the rate limiter without blocking
+         * a thread and then sends the request using the given executor.
+         * Retries are handled the same way as {@link #request(ResponseParser)} in the executor thread.
+         *
+         * @param parser   the decoder that reads the successful response body.
+         * @param executor the executor that sends the request once the rate limiter allows it.
+         * @return the decoded response, or null if there was no response.
+         * @since 13.0.0
+         */
+        @NotNull
+        public <T> CompletableFuture<T> requestAsync(@NotNull ResponseParser<T> parser, @NotNull Executor executor) {
+            Objects.requireNonNull(parser, "Response parser cannot be null");
+            Objects.requireNonNull(executor, "Executor cannot be null");
+
+            CompletableFuture<Void> reservation = waitInQueue ? rateLimiter.acquireAsync() : CompletableFuture.completedFuture(null);
+            return reservation.thenApplyAsync(x -> {
+                reserved = waitInQueue;
+                try {
+                    return request(parser);
+                } catch (IOException ex) {
+                    throw new CompletionException(ex);
+                }
+            }, executor);
+        }
+
         @Nullable
-        private JsonElement request0() throws IOException, MojangAPIException {
-            if (waitInQueue) {
+        private <T> T request0(ResponseParser<T> parser) throws IOException, MojangAPIException {
+            if (reserved) {
+                // Already acquired by requestAsync()
+                reserved = false;
+            } else if (waitInQueue) {
                 rateLimiter.acquireOrWait();
             } else {
                 if (!rateLimiter.acquire())
@@ -196,105 +267,99 @@ public class MinecraftClient {
                             "Rate limit has been hit! " + rateLimiter + totalReq());
             }
 
-            connection = (HttpURLConnection)
-                    (append == null ? baseURL : baseURL.resolve(append)).toURL().openConnection(PROXY);
-            connection.setRequestMethod(method);
-            connection.setConnectTimeout((int) connectTimeout.toMillis());
-            connection.setReadTimeout((int) readTimeout.toMillis());
-            connection.setDoInput(true);
-            connection.setUseCaches(false);
-            connection.setAllowUserInteraction(false);
+            URI uri = append == null ? baseURL : baseURL.resolve(append);
+            Map<String, String> headers = new LinkedHashMap<>(2);
 
             // Not used by the default authlib's client, but we're going to
             // add it anyway just for the sake of networking and Mojang's server stats (if any?)
-            connection.setRequestProperty("User-Agent", USER_AGENT);
+            headers.put("User-Agent", USER_AGENT);
 
             // The token is only used for modifying operations like uploading a new skin.
-            // if (this.accessToken != null) {
-            //     connection.setRequestProperty("Authorization", "Bearer " + this.accessToken);
-            // }
+            // headers.put("Authorization", "Bearer " + this.accessToken);
 
+            byte[] bodyBytes = null;
             if (body != null) {
-                connection.setDoOutput(true);
                 String stringBody = GSON.toJson(body);
-                debug("Writing body {} to {}", stringBody, connection.getURL());
-                byte[] bodyBytes = stringBody.getBytes(StandardCharsets.UTF_8);
-                connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
-                connection.setRequestProperty("Content-Length", String.valueOf(bodyBytes.length));
+                debug("Writing body {} to {}", stringBody, uri);
+                bodyBytes = stringBody.getBytes(StandardCharsets.UTF_8);
+                headers.put("Content-Type", "application/json; charset=utf-8");
+            }
 
-                try (OutputStream outputStream = connection.getOutputStream()) {
-                    outputStream.write(bodyBytes);
+            HttpTransport.Request request = new HttpTransport.Request(method, uri, headers, bodyBytes, connectTimeout, readTimeout);
+            debug("Sending request to {}", uri);
+            try (HttpTransport.Response response = transport.send(request)) {
+                return handleResponse(request, response, parser);
+            } catch (SocketException ex) {
+                if (ex.getMessage() != null && ex.getMessage().toLowerCase(Locale.ENGLISH).contains("connection reset")) {
+                    throw new MojangAPIRetryException(MojangAPIRetryException.Reason.CONNECTION_RESET, "Connection was closed", ex);
                 }
-            } else {
-                connection.setDoOutput(false);
+                throw ex;
             }
-
-            return request00();
         }
 
-        private @Nullable JsonElement request00() {
-            debug("Sending request to {}", connection.getURL());
-            try {
-                return connectionStreamToJson(false);
-            } catch (Throwable ex) {
-                MojangAPIException exception;
+        @Nullable
+        private <T> T handleResponse(HttpTransport.Request request, HttpTransport.Response response,
+                                     ResponseParser<T> parser) throws IOException {
+            int statusCode = response.statusCode();
+            switch (statusCode) {
+                case HttpURLConnection.HTTP_NOT_FOUND:
+                    return null;
+                case 429: // Too many requests
+                    String rateLimitBefore = rateLimiter.toString();
+                    rateLimiter.instantRateLimit();
+                    throw new MojangAPIRetryException(MojangAPIRetryException.Reason.RATELIMITED,
+                            "Rate limit has been hit (server confirmed): " + rateLimitBefore + " -> " + rateLimiter + totalReq());
+            }
+
+            if (statusCode >= 400) {
+                JsonElement json;
                 try {
-                    switch (connection.getResponseCode()) {
-                        case HttpURLConnection.HTTP_NOT_FOUND:
-                            return null;
-                        case 429: // Too many requests
-                            String rateLimitBefore = rateLimiter.toString();
-                            rateLimiter.instantRateLimit();
-                            throw new MojangAPIRetryException(MojangAPIRetryException.Reason.RATELIMITED,
-                                    "Rate limit has been hit (server confirmed): " + rateLimitBefore + " -> " + rateLimitBefore + totalReq());
-                    }
-                    if (ex instanceof SocketException && ex.getMessage().toLowerCase(Locale.ENGLISH).contains("connection reset")) {
-                        throw new MojangAPIRetryException(MojangAPIRetryException.Reason.CONNECTION_RESET, "Connection was closed", ex);
-                    }
-                    JsonElement errorJson = connectionStreamToJson(true);
-                    exception = new MojangAPIException(errorJson == null ? "[NO ERROR RESPONSE]" : errorJson.toString(), ex);
-                } catch (MojangAPIRetryException rethrowEx) {
-                    throw rethrowEx;
-                } catch (Throwable errorEx) {
-                    exception = new MojangAPIException("Failed to read both normal response " +
-                            "and error response from '" + connection.getURL() + '\'');
+                    json = streamToJson(response.body(), Streams::parse);
+                } catch (Throwable ex) {
+                    MojangAPIException exception = new MojangAPIException("Failed to read the error response (" +
+                            statusCode + ") from '" + request + '\'');
                     exception.addSuppressed(ex);
-                    exception.addSuppressed(errorEx);
+                    throw exception;
                 }
+                throw new MojangAPIException(json == null || json.isJsonNull() ? "[NO ERROR RESPONSE] " + statusCode : json.toString());
+            }
 
-                throw exception;
+            try {
+                return streamToJson(response.body(), parser);
+            } catch (Throwable ex) {
+                throw new IllegalStateException("normal response is not a JSON object '" + statusCode + "' from " + request, ex);
             }
         }
 
-        private JsonElement connectionStreamToJson(boolean error) throws IOException, IllegalStateException {
-            try (
-                    InputStream inputStream = error ? connection.getErrorStream() : connection.getInputStream();
-            ) {
-                if (error && inputStream == null) return null;
-                try (JsonReader reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-                    Exception ex = null;
-                    JsonElement json;
-                    try {
-                        json = Streams.parse(reader);
-                    } catch (Exception e) {
-                        ex = e;
-                        json = null;
-                    }
-                    if (json == null) {
-                        // For UUID_TO_PROFILE, this happens when HTTP Code 204 (No Content) is given.
-                        // And that happens if the UUID doesn't exist in Mojang servers. (E.g. cracked UUIDs)
-                        String rawResponse = CharStreams.toString(new InputStreamReader(
-                                error ? connection.getErrorStream() : connection.getInputStream(),
-                                Charsets.UTF_8)
-                        );
-                        throw new IllegalStateException((error ? "error response" : "normal response")
-                                + " is not a JSON object '"
-                                + connection.getResponseCode() + " - " + connection.getResponseMessage() + "': " +
-                                rawResponse, ex);
-                    }
-                    return json;
-                }
+        /**
+         * Parses the JSON while it's being received instead of reading the whole response first.
+         * Empty responses are returned as null without calling the parser.
+         * For UUID_TO_PROFILE, this happens when HTTP Code 204 (No Content) is given.
+         * And that happens if the UUID doesn't exist in Mojang servers. (E.g. cracked UUIDs)
+         */
+        @Nullable
+        private <T> T streamToJson(@Nullable InputStream inputStream, ResponseParser<T> parser) throws IOException {
+            if (inputStream == null) return null;
+            PushbackInputStream stream = new PushbackInputStream(inputStream, 1);
+            int first = stream.read();
+            if (first == -1) return null;
+            stream.unread(first);
+
+            try (JsonReader reader = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                return parser.parse(reader);
             }
         }
     }
+
+    /**
+     * Decodes a successful response directly from the stream.
+     *
+     * @see Session#request(ResponseParser)
+     * @since 13.0.0
+     */
+    @FunctionalInterface
+    public interface ResponseParser<T> {
+        @Nullable
+        T parse(@NotNull JsonReader reader) throws IOException;
+    }
 }
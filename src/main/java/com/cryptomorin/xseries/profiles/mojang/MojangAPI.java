@@ -32,13 +32,16 @@ import com.cryptomorin.xseries.profiles.objects.ProfileInputType;
 import com.cryptomorin.xseries.reflection.XReflection;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Multimap;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.internal.Streams;
+import com.google.gson.stream.JsonReader;
 import com.mojang.authlib.GameProfile;
 import com.mojang.authlib.properties.Property;
-import com.mojang.authlib.properties.PropertyMap;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -46,7 +49,12 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Note: <a href="https://wiki.vg/">Wiki.vg</a> is no longer availabe because it was
@@ -98,20 +106,46 @@ public final class MojangAPI {
             new RateLimiter(200, Duration.ofMinutes(1))
     );
 
+    @Nullable
+    private static volatile PersistentProfileCache persistentCache;
+
+    /**
+     * Sets a cache that is checked before sending any requests and keeps the results between restarts.
+     * The previous cache (if any) is not closed.
+     *
+     * @param cache the cache to use, or null to disable it.
+     */
+    @ApiStatus.Experimental
+    public static void setPersistentCache(@Nullable PersistentProfileCache cache) {
+        persistentCache = cache;
+    }
+
     /**
      * @return null if a player with that username is not found.
      */
     @Nullable
+    @SuppressWarnings("OptionalAssignedToNull")
     public static UUID requestUsernameToUUID(@NotNull String username) throws IOException {
+        PersistentProfileCache persistent = persistentCache;
+        if (persistent != null) {
+            Optional<UUID> stored = persistent.getUUID(username);
+            if (stored != null) return stored.orElse(null);
+        }
+
         JsonElement requestElement = USERNAME_TO_UUID.session(null).append(username).request();
-        if (requestElement == null) return null;
+        if (requestElement == null) {
+            if (persistent != null) persistent.putUUID(username, null);
+            return null;
+        }
 
         JsonObject userJson = requestElement.getAsJsonObject();
         JsonElement idElement = userJson.get("id");
         if (idElement == null)
             throw new IllegalArgumentException("No 'id' field for UUID request for '" + username + "': " + userJson);
 
-        return PlayerUUIDs.UUIDFromDashlessString(idElement.getAsString());
+        UUID uuid = PlayerUUIDs.UUIDFromDashlessString(idElement.getAsString());
+        if (persistent != null) persistent.putUUID(username, uuid);
+        return uuid;
     }
 
     /**
@@ -202,6 +236,71 @@ public final class MojangAPI {
      * @return Map of players that exist.
      */
     public static Map<UUID, String> usernamesToUUIDs(@NotNull Collection<String> usernames, @Nullable ProfileRequestConfiguration config) {
+        Map<UUID, String> mapped = new HashMap<>(usernames == null ? 0 : usernames.size());
+        Set<String> finalUsernames = removeCachedUsernames(usernames, mapped);
+        if (finalUsernames.isEmpty()) return mapped;
+
+        for (List<String> batch : partitionUsernames(finalUsernames)) {
+            mergeUUIDBatch(mapped, requestUUIDBatch(batch, config));
+        }
+
+        return mapped;
+    }
+
+    /**
+     * Same as {@link #usernamesToUUIDs(Collection, ProfileRequestConfiguration)}, but sends multiple
+     * batches at the same time instead of one after another.
+     * <p>
+     * The number of batches that are sent at the same time is limited by {@code maxParallelBatches},
+     * the number of requests that the rate limiter currently allows and the threads of the {@code executor}.
+     * Every request still waits for the rate limiter before it's sent, but the waiting doesn't hold an executor thread.
+     *
+     * @param usernames          Case-insensitive list of usernames. Duplicates are ignored and cached names are not requested but returned.
+     * @param config             Request configuration.
+     * @param maxParallelBatches the maximum number of batches (of 10 usernames) that are requested at the same time.
+     * @param onBatch            called with the players found in each batch as soon as that batch is done.
+     *                           The cached names are passed to this first. This can be called from multiple threads.
+     * @param executor           the executor that sends the requests.
+     * @return Map of players that exist, completed once all batches are done.
+     * The future fails if any of the batches fail, but the other batches are still requested.
+     */
+    @ApiStatus.Experimental
+    public static CompletableFuture<Map<UUID, String>> usernamesToUUIDsAsync(
+            @NotNull Collection<String> usernames, @Nullable ProfileRequestConfiguration config,
+            int maxParallelBatches, @Nullable Consumer<Map<UUID, String>> onBatch, @NotNull Executor executor) {
+        if (maxParallelBatches <= 0) throw new IllegalArgumentException("Parallel batches must be positive: " + maxParallelBatches);
+        Objects.requireNonNull(executor, "Executor is null");
+
+        Map<UUID, String> mapped = new HashMap<>(usernames == null ? 0 : usernames.size());
+        Set<String> finalUsernames = removeCachedUsernames(usernames, mapped);
+        if (onBatch != null && !mapped.isEmpty()) onBatch.accept(Collections.unmodifiableMap(new HashMap<>(mapped)));
+        if (finalUsernames.isEmpty()) return CompletableFuture.completedFuture(mapped);
+
+        Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+        for (List<String> batch : partitionUsernames(finalUsernames)) batches.add(new ArrayList<>(batch));
+
+        // There's no point in sending more requests at the same time than what the rate limiter allows,
+        // the extra ones would just wait for the others.
+        int remaining = USERNAMES_TO_UUIDS.getRateLimiter().getRemainingRequests();
+        int workers = Math.max(1, Math.min(Math.min(maxParallelBatches, remaining), batches.size()));
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            futures.add(requestUUIDBatches(batches, config, mapped, onBatch, executor, null));
+        }
+
+        return XReflection.stacktrace(CompletableFuture
+                .allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(x -> mapped));
+    }
+
+    /**
+     * Validates the usernames and removes duplicates and the ones that are already cached.
+     *
+     * @param mapped the cached names are added to this map.
+     * @return the usernames that need to be requested.
+     */
+    private static Set<String> removeCachedUsernames(Collection<String> usernames, Map<UUID, String> mapped) {
         if (usernames == null || usernames.isEmpty()) throw new IllegalArgumentException("Usernames are null or empty");
         for (String username : usernames) {
             if (username == null || !ProfileInputType.USERNAME.pattern.matcher(username).matches()) {
@@ -209,61 +308,137 @@ public final class MojangAPI {
             }
         }
 
-        Map<UUID, String> mapped = new HashMap<>(usernames.size());
-        Set<String> finalUsernames = new HashSet<>(usernames);
-        {
-            // Remove duplicate & cached names
-            // TODO - Perhaps we could add another list PlayerUUIDs.LOWERCASE_TO_USERNAME
-            //        for a Map<String, String> to access case-corrected usernames.
-            Iterator<String> usernameIter = finalUsernames.iterator();
-            while (usernameIter.hasNext()) {
-                String username = usernameIter.next();
-                UUID cached = PlayerUUIDs.USERNAME_TO_ONLINE.get(username);
-                if (cached != null) {
+        // Usernames are case-insensitive, so "Notch" and "notch" are requested once.
+        Set<String> finalUsernames = new HashSet<>(usernames.size());
+        Set<String> normalizedUsernames = new HashSet<>(usernames.size());
+        for (String username : usernames) {
+            if (normalizedUsernames.add(PlayerUUIDs.normalizeUsername(username))) finalUsernames.add(username);
+        }
+        PersistentProfileCache persistent = persistentCache;
+
+        // Remove duplicate & cached names
+        Iterator<String> usernameIter = finalUsernames.iterator();
+        while (usernameIter.hasNext()) {
+            String username = usernameIter.next();
+            UUID cached = PlayerUUIDs.getCachedRealUUID(username);
+            if (cached != null) {
+                usernameIter.remove();
+                if (cached != PlayerUUIDs.IDENTITY_UUID) {
+                    String caseCorrected = PlayerUUIDs.getCaseCorrectedUsername(username);
+                    mapped.put(cached, caseCorrected == null ? username : caseCorrected);
+                }
+            } else if (persistent != null) {
+                @SuppressWarnings("OptionalAssignedToNull")
+                Optional<UUID> stored = persistent.getUUID(username);
+                // noinspection OptionalAssignedToNull
+                if (stored != null) {
                     usernameIter.remove();
-                    mapped.put(cached, username);
+                    PlayerUUIDs.cacheRealUUID(username, stored.orElse(null), PlayerUUIDs.getOfflineUUID(username));
+                    if (stored.isPresent()) mapped.put(stored.get(), username);
                 }
             }
         }
 
-        if (finalUsernames.isEmpty()) return mapped;
-        boolean onlineMode = PlayerUUIDs.isOnlineMode();
+        return finalUsernames;
+    }
 
+    private static Iterable<List<String>> partitionUsernames(Set<String> usernames) {
         // For some reason, the YggdrasilGameProfileRepository partitions names in pairs instead of 10s.
         // It also "normalizes" names with lowercase and sends the request.
         // This API entry case-corrects the usernames in its response.
-        Iterable<List<String>> partition = Iterables.partition(finalUsernames, 10);
-        for (List<String> batch : partition) {
-            JsonArray response;
-            try {
-                // The wiki says that:
-                // BadRequestException is returned when any of the usernames is null or otherwise invalid
-                // But I'm not sure what that means in this context... but invalid usernames are just ignored,
-                // and no response is contained in the final result regarding them.
-                response = USERNAMES_TO_UUIDS.session(config).body(batch).request().getAsJsonArray();
-            } catch (IOException ex) {
-                throw new MojangAPIException("Failed to request UUIDs for username batch: " + batch, ex);
-            }
+        return Iterables.partition(usernames, 10);
+    }
 
-            for (JsonElement element : response) {
-                JsonObject obj = element.getAsJsonObject();
-                String name = obj.get("name").getAsString();
-                UUID realId = PlayerUUIDs.UUIDFromDashlessString(obj.get("id").getAsString());
-                UUID offlineId = PlayerUUIDs.getOfflineUUID(name);
-
-                PlayerUUIDs.USERNAME_TO_ONLINE.put(name, realId);
-                PlayerUUIDs.ONLINE_TO_OFFLINE.put(realId, offlineId);
-                PlayerUUIDs.OFFLINE_TO_ONLINE.put(offlineId, realId);
-                if (!ProfilesCore.UserCache_profilesByName.containsKey(name)) {
-                    cacheProfile(PlayerProfiles.createGameProfile(onlineMode ? realId : offlineId, name));
-                }
+    private static void mergeUUIDBatch(Map<UUID, String> mapped, Map<UUID, String> batch) {
+        for (Map.Entry<UUID, String> entry : batch.entrySet()) {
+            String prev = mapped.put(entry.getKey(), entry.getValue());
+            if (prev != null)
+                throw new IllegalArgumentException("Got duplicate usernames for UUID: " + entry.getKey() + " (" + prev + " -> " + entry.getValue() + ')');
+        }
+    }
 
-                String prev = mapped.put(realId, name);
-                if (prev != null)
-                    throw new IllegalArgumentException("Got duplicate usernames for UUID: " + realId + " (" + prev + " -> " + name + ')');
+    /**
+     * Requests the batches one after another until there are no batches left.
+     * Failed batches don't stop the other batches from being requested.
+     *
+     * @param error the error of the previously failed batches of this chain.
+     */
+    private static CompletableFuture<Void> requestUUIDBatches(
+            Queue<List<String>> batches, @Nullable ProfileRequestConfiguration config, Map<UUID, String> mapped,
+            @Nullable Consumer<Map<UUID, String>> onBatch, Executor executor, @Nullable Throwable error) {
+        List<String> batch = batches.poll();
+        if (batch == null) {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            if (error == null) done.complete(null);
+            else done.completeExceptionally(error);
+            return done;
+        }
+
+        return USERNAMES_TO_UUIDS.session(config).body(batch).requestAsync(Streams::parse, executor)
+                .thenApply(response -> handleUUIDBatch(batch, response))
+                .handle((result, ex) -> {
+                    Throwable nextError = error;
+                    if (ex != null) {
+                        if (ex instanceof CompletionException && ex.getCause() != null) ex = ex.getCause();
+                        if (ex instanceof IOException)
+                            ex = new MojangAPIException("Failed to request UUIDs for username batch: " + batch, ex);
+
+                        if (nextError == null) nextError = ex;
+                        else nextError.addSuppressed(ex);
+                    } else {
+                        synchronized (mapped) {
+                            mergeUUIDBatch(mapped, result);
+                        }
+                        if (onBatch != null) onBatch.accept(Collections.unmodifiableMap(result));
+                    }
+                    return requestUUIDBatches(batches, config, mapped, onBatch, executor, nextError);
+                }).thenCompose(next -> next);
+    }
+
+    private static Map<UUID, String> requestUUIDBatch(List<String> batch, @Nullable ProfileRequestConfiguration config) {
+        JsonElement response;
+        try {
+            response = USERNAMES_TO_UUIDS.session(config).body(batch).request();
+        } catch (IOException ex) {
+            throw new MojangAPIException("Failed to request UUIDs for username batch: " + batch, ex);
+        }
+        return handleUUIDBatch(batch, response);
+    }
+
+    private static Map<UUID, String> handleUUIDBatch(List<String> batch, JsonElement responseElement) {
+        // The wiki says that:
+        // BadRequestException is returned when any of the usernames is null or otherwise invalid
+        // But I'm not sure what that means in this context... but invalid usernames are just ignored,
+        // and no response is contained in the final result regarding them.
+        JsonArray response = responseElement.getAsJsonArray();
+        boolean onlineMode = PlayerUUIDs.isOnlineMode();
+        PersistentProfileCache persistent = persistentCache;
+        Map<String, String> notFound = new HashMap<>(batch.size());
+        for (String username : batch) notFound.put(PlayerUUIDs.normalizeUsername(username), username);
+
+        Map<UUID, String> mapped = new HashMap<>(batch.size());
+        for (JsonElement element : response) {
+            JsonObject obj = element.getAsJsonObject();
+            String name = obj.get("name").getAsString();
+            UUID realId = PlayerUUIDs.UUIDFromDashlessString(obj.get("id").getAsString());
+            UUID offlineId = PlayerUUIDs.getOfflineUUID(name);
+            if (persistent != null) persistent.putUUID(name, realId);
+            notFound.remove(PlayerUUIDs.normalizeUsername(name));
+
+            PlayerUUIDs.cacheCaseCorrectedUUID(name, realId);
+            if (!ProfilesCore.UserCache_profilesByName.containsKey(name)) {
+                cacheProfile(PlayerProfiles.createGameProfile(onlineMode ? realId : offlineId, name));
             }
+
+            String prev = mapped.put(realId, name);
+            if (prev != null)
+                throw new IllegalArgumentException("Got duplicate usernames for UUID: " + realId + " (" + prev + " -> " + name + ')');
         }
 
+        for (String username : notFound.values()) {
+            PlayerUUIDs.cacheRealUUID(username, null, PlayerUUIDs.getOfflineUUID(username));
+            if (persistent != null) persistent.putUUID(username, null);
+        }
         return mapped;
     }
 
@@ -276,7 +451,10 @@ public final class MojangAPI {
      */
     @NotNull
     public static GameProfile getCachedProfileByUUID(UUID uuid) {
-        uuid = PlayerUUIDs.isOnlineMode() ? uuid : PlayerUUIDs.ONLINE_TO_OFFLINE.getOrDefault(uuid, uuid);
+        if (!PlayerUUIDs.isOnlineMode()) {
+            UUID offlineId = PlayerUUIDs.ONLINE_TO_OFFLINE.getIfPresent(uuid);
+            if (offlineId != null) uuid = offlineId;
+        }
         try {
             @Nullable Object profile = ProfilesCore.GameProfileCache_get$profileByUUID$.invoke(ProfilesCore.USER_CACHE, uuid);
             if (profile instanceof Optional) profile = ((Optional<?>) profile).orElse(null);
@@ -336,10 +514,14 @@ public final class MojangAPI {
         GameProfile cached = handleCache(profile, realUUID);
         if (cached != null) return cached;
 
-        JsonElement request = requestProfile(profile, realUUID);
-        JsonObject profileData = request.getAsJsonObject();
+        PersistentProfileCache persistent = persistentCache;
+        if (persistent != null) {
+            GameProfile stored = handlePersistentCache(persistent, profile, realUUID);
+            if (stored != null) return stored;
+        }
+
         List<String> profileActions = new ArrayList<>();
-        GameProfile fetchedProfile = createGameProfile(profileData, profileActions);
+        GameProfile fetchedProfile = requestProfile(profile, realUUID, profileActions);
 
         fetchedProfile = PlayerProfiles.sanitizeProfile(fetchedProfile);
         cacheProfile(fetchedProfile);
@@ -347,9 +529,39 @@ public final class MojangAPI {
         INSECURE_PROFILES.put(realUUID, Optional.of(fetchedProfile));
         MOJANG_PROFILE_CACHE.cache(new PlayerProfile(realUUID, profile, fetchedProfile, profileActions));
 
+        if (persistent != null) {
+            Property textures = PlayerProfiles.getTextureProperty(fetchedProfile).orElse(null);
+            if (textures != null) {
+                persistent.putProfile(realUUID, new PersistentProfileCache.StoredProfile(fetchedProfile.getName(),
+                        PlayerProfiles.getPropertyValue(textures), PlayerProfiles.getPropertySignature(textures)));
+            }
+        }
+
         return fetchedProfile;
     }
 
+    @SuppressWarnings("OptionalAssignedToNull")
+    private static @Nullable GameProfile handlePersistentCache(@NotNull PersistentProfileCache persistent,
+                                                               @NotNull GameProfile profile, UUID realUUID) {
+        Optional<PersistentProfileCache.StoredProfile> stored = persistent.getProfile(realUUID);
+        // noinspection OptionalAssignedToNull
+        if (stored == null) return null;
+
+        ProfileLogger.debug("Found persistent profile from UUID ({}): {}", realUUID, profile);
+        if (!stored.isPresent()) {
+            INSECURE_PROFILES.put(realUUID, Optional.empty());
+            throw new UnknownPlayerException(realUUID, "Player with the given properties not found: " + profile);
+        }
+
+        GameProfile storedProfile = PlayerProfiles.createGameProfile(realUUID, stored.get().name);
+        PlayerProfiles.setTexturesProperty(storedProfile, stored.get().textures, stored.get().signature);
+        storedProfile = PlayerProfiles.sanitizeProfile(storedProfile);
+        cacheProfile(storedProfile);
+
+        INSECURE_PROFILES.put(realUUID, Optional.of(storedProfile));
+        return storedProfile;
+    }
+
     @SuppressWarnings("OptionalAssignedToNull")
     private static @Nullable GameProfile handleCache(@NotNull GameProfile profile, UUID realUUID) {
         Optional<GameProfile> cached = INSECURE_PROFILES.getIfPresent(realUUID);
@@ -369,16 +581,18 @@ public final class MojangAPI {
         return null;
     }
 
-    private static @NotNull JsonElement requestProfile(@NotNull GameProfile profile, UUID realUUID) {
-        JsonElement request;
+    private static @NotNull GameProfile requestProfile(@NotNull GameProfile profile, UUID realUUID, List<String> profileActions) {
+        GameProfile request;
         try {
             request = UUID_TO_PROFILE.session(null)
                     .append(PlayerUUIDs.toUndashedUUID(realUUID) + "?unsigned=" + !REQUIRE_SECURE_PROFILES)
-                    .request();
+                    .request(reader -> readGameProfile(reader, profileActions));
         } catch (IOException e) {
             throw new IllegalStateException("Failed to request profile: " + profile + " with real UUID: " + realUUID, e);
         }
         if (request == null) {
+            PersistentProfileCache persistent = persistentCache;
+            if (persistent != null) persistent.putProfile(realUUID, null);
             INSECURE_PROFILES.put(realUUID, Optional.empty());
             MOJANG_PROFILE_CACHE.cache(new PlayerProfile(realUUID, profile, null, null));
             throw new UnknownPlayerException(realUUID, "Player with the given properties not found: " + profile);
@@ -386,42 +600,74 @@ public final class MojangAPI {
         return request;
     }
 
-    private static @NotNull GameProfile createGameProfile(JsonObject profileData, List<String> profileActions) {
-        // Two main fields, name and UUID
-        UUID id = PlayerUUIDs.UUIDFromDashlessString(profileData.get("id").getAsString());
-        String name = profileData.get("name").getAsString();
-        GameProfile fetchedProfile = PlayerProfiles.createGameProfile(id, name);
-
-        // Basic properties
-        JsonElement propertiesEle = profileData.get("properties");
-        if (propertiesEle != null) {
-            JsonArray props = propertiesEle.getAsJsonArray();
-            PropertyMap properties = fetchedProfile.getProperties();
-            for (JsonElement prop : props) {
-                JsonObject obj = prop.getAsJsonObject();
-                String propName = obj.get("name").getAsString();
-                String propValue = obj.get("value").getAsString();
-                JsonElement sig = obj.get("signature");
-
-                Property property;
-                if (sig != null) {
-                    property = new Property(propName, propValue, sig.getAsString());
-                } else {
-                    property = new Property(propName, propValue);
-                }
-
-                properties.put(propName, property);
+    /**
+     * Reads the session server's profile response directly from the stream.
+     * Only the id, name, properties and profile actions are read, everything else is skipped.
+     */
+    private static @NotNull GameProfile readGameProfile(JsonReader reader, List<String> profileActions) throws IOException {
+        // The request might be retried after a partial read.
+        profileActions.clear();
+
+        String id = null, name = null;
+        Multimap<String, Property> properties = ArrayListMultimap.create(1, 1);
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    id = reader.nextString();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                case "properties":
+                    reader.beginArray();
+                    while (reader.hasNext()) readProperty(reader, properties);
+                    reader.endArray();
+                    break;
+                case "profileActions":
+                    reader.beginArray();
+                    while (reader.hasNext()) profileActions.add(reader.nextString());
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
+        reader.endObject();
+
+        if (id == null || name == null)
+            throw new IllegalStateException("Profile response is missing the id or name: id=" + id + ", name=" + name);
 
-        // Create profile actions
-        JsonElement profileActionsElement = profileData.get("profileActions");
-        if (profileActionsElement != null) {
-            for (JsonElement action : profileActionsElement.getAsJsonArray()) {
-                profileActions.add(action.getAsString());
+        // Two main fields, name and UUID
+        GameProfile fetchedProfile = PlayerProfiles.createGameProfile(PlayerUUIDs.UUIDFromDashlessString(id), name);
+        fetchedProfile.getProperties().putAll(properties);
+        return fetchedProfile;
+    }
+
+    private static void readProperty(JsonReader reader, Multimap<String, Property> properties) throws IOException {
+        String propName = null, propValue = null, signature = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    propName = reader.nextString();
+                    break;
+                case "value":
+                    propValue = reader.nextString();
+                    break;
+                case "signature":
+                    signature = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
             }
         }
+        reader.endObject();
 
-        return fetchedProfile;
+        if (propName == null || propValue == null)
+            throw new IllegalStateException("Profile property is missing the name or value: " + propName + '=' + propValue);
+        properties.put(propName, signature == null ? new Property(propName, propValue) : new Property(propName, propValue, signature));
     }
 }
@@ -0,0 +1,554 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.profiles.mojang;
+
+import com.cryptomorin.xseries.profiles.ProfileLogger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An optional cache for {@link MojangAPI} results that persists between restarts.
+ * It stores username to UUID and UUID to texture results and is checked before sending any requests.
+ * This can be enabled using {@link MojangAPI#setPersistentCache(PersistentProfileCache)}.
+ * <p>
+ * Entries are appended to a log file ({@code profiles.log}), and the latest entry for each key is found
+ * using a memory-mapped open-addressing hash index ({@code profiles-<capacity>.idx}) which stores
+ * the position of the entry in the log. The index is rebuilt from the log if it's missing or doesn't
+ * match the log (e.g. after a crash), and the log is compacted whenever most of it is stale.
+ */
+@ApiStatus.Experimental
+public final class PersistentProfileCache implements Closeable {
+    private static final String LOG_FILE = "profiles.log";
+    private static final Pattern INDEX_FILE = Pattern.compile("profiles-(\\d+)\\.idx");
+
+    private static final int INDEX_MAGIC = 0x58534B43, INDEX_VERSION = 1;
+    /**
+     * {@code int magic, int version, int capacity, int size, long logLength, long records}
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * {@code long keyHash, long logPosition}
+     */
+    private static final int SLOT_SIZE = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte USERNAME_TO_UUID = 1, UUID_TO_PROFILE = 2;
+
+    private final Path directory;
+    private final long usernameExpiration, profileExpiration;
+    private FileChannel log;
+    private Path indexFile;
+    private MappedByteBuffer index;
+    private int capacity, size;
+    /**
+     * The number of entries in the log, including stale ones.
+     */
+    private long records;
+    /**
+     * The log is only compacted after it has more records than this, which is increased
+     * after a failed compaction so it's not retried on every write.
+     */
+    private long compactAfter = INITIAL_CAPACITY;
+    private LogReplacer logReplacer = PersistentProfileCache::replaceLog;
+    private boolean closed;
+
+    private PersistentProfileCache(Path directory, Duration usernameExpiration, Duration profileExpiration) {
+        this.directory = directory;
+        this.usernameExpiration = usernameExpiration.toMillis();
+        this.profileExpiration = profileExpiration.toMillis();
+    }
+
+    /**
+     * @param directory          the directory that the cache files are stored in.
+     * @param usernameExpiration how long username to UUID results are kept. Players can change
+     *                           their usernames every 30 days.
+     * @param profileExpiration  how long UUID to texture results are kept.
+     */
+    @NotNull
+    public static PersistentProfileCache open(@NotNull Path directory,
+                                              @NotNull Duration usernameExpiration,
+                                              @NotNull Duration profileExpiration) throws IOException {
+        Objects.requireNonNull(directory, "Directory is null");
+        if (usernameExpiration.isNegative() || usernameExpiration.isZero() || profileExpiration.isNegative() || profileExpiration.isZero())
+            throw new IllegalArgumentException("Expiration durations must be positive: " + usernameExpiration + ", " + profileExpiration);
+
+        Files.createDirectories(directory);
+        PersistentProfileCache cache = new PersistentProfileCache(directory, usernameExpiration, profileExpiration);
+        cache.openFiles();
+        if (cache.shouldCompact()) cache.compact();
+        return cache;
+    }
+
+    /**
+     * Textures of a player that exists.
+     */
+    public static final class StoredProfile {
+        public final String name, textures;
+        /**
+         * The signature of the textures, if they were requested signed.
+         */
+        @Nullable
+        public final String signature;
+
+        public StoredProfile(@NotNull String name, @NotNull String textures, @Nullable String signature) {
+            this.name = Objects.requireNonNull(name);
+            this.textures = Objects.requireNonNull(textures);
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * @return null if there is no entry for this username or if it's expired,
+     * {@link Optional#empty()} if it was stored that this player doesn't exist.
+     */
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Nullable
+    public synchronized Optional<UUID> getUUID(@NotNull String username) {
+        try {
+            DataInputStream data = get(USERNAME_TO_UUID, normalize(username));
+            if (data == null) return null;
+            if (!data.readBoolean()) return Optional.empty();
+            return Optional.of(new UUID(data.readLong(), data.readLong()));
+        } catch (IOException ex) {
+            ProfileLogger.LOGGER.error("Failed to read persistent UUID of {}", username, ex);
+            return null;
+        }
+    }
+
+    /**
+     * @param uuid null if a player with this username doesn't exist.
+     */
+    public synchronized void putUUID(@NotNull String username, @Nullable UUID uuid) {
+        try {
+            put(USERNAME_TO_UUID, normalize(username), usernameExpiration, out -> {
+                out.writeBoolean(uuid != null);
+                if (uuid != null) {
+                    out.writeLong(uuid.getMostSignificantBits());
+                    out.writeLong(uuid.getLeastSignificantBits());
+                }
+            });
+        } catch (IOException ex) {
+            ProfileLogger.LOGGER.error("Failed to persist UUID of {} -> {}", username, uuid, ex);
+        }
+    }
+
+    /**
+     * @param realUUID the online UUID of the player.
+     * @return null if there is no entry for this UUID or if it's expired,
+     * {@link Optional#empty()} if it was stored that this player doesn't exist.
+     */
+    @SuppressWarnings("OptionalAssignedToNull")
+    @Nullable
+    public synchronized Optional<StoredProfile> getProfile(@NotNull UUID realUUID) {
+        try {
+            DataInputStream data = get(UUID_TO_PROFILE, realUUID.toString());
+            if (data == null) return null;
+            if (!data.readBoolean()) return Optional.empty();
+            String name = data.readUTF(), textures = data.readUTF();
+            String signature = data.readBoolean() ? data.readUTF() : null;
+            return Optional.of(new StoredProfile(name, textures, signature));
+        } catch (IOException ex) {
+            ProfileLogger.LOGGER.error("Failed to read persistent profile of {}", realUUID, ex);
+            return null;
+        }
+    }
+
+    /**
+     * @param profile null if a player with this UUID doesn't exist.
+     */
+    public synchronized void putProfile(@NotNull UUID realUUID, @Nullable StoredProfile profile) {
+        try {
+            put(UUID_TO_PROFILE, realUUID.toString(), profileExpiration, out -> {
+                out.writeBoolean(profile != null);
+                if (profile != null) {
+                    out.writeUTF(profile.name);
+                    out.writeUTF(profile.textures);
+                    out.writeBoolean(profile.signature != null);
+                    if (profile.signature != null) out.writeUTF(profile.signature);
+                }
+            });
+        } catch (IOException ex) {
+            ProfileLogger.LOGGER.error("Failed to persist profile of {}", realUUID, ex);
+        }
+    }
+
+    private static String normalize(String username) {
+        return username.toLowerCase(Locale.ENGLISH);
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * A log entry: {@code int length, byte kind, long expiresAt, UTF key, payload...}
+     */
+    private static final class Entry {
+        private final byte kind;
+        private final long expiresAt;
+        private final String key;
+        private final DataInputStream payload;
+
+        private Entry(byte[] body) throws IOException {
+            this.payload = new DataInputStream(new ByteArrayInputStream(body));
+            this.kind = payload.readByte();
+            this.expiresAt = payload.readLong();
+            this.key = payload.readUTF();
+        }
+    }
+
+    private DataInputStream get(byte kind, String key) throws IOException {
+        if (closed) return null;
+
+        long hash = hash(kind, key);
+        int mask = capacity - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            long slotHash = index.getLong(slotOffset(slot));
+            if (slotHash == 0) return null;
+            if (slotHash != hash) continue;
+
+            Entry entry = readEntry(index.getLong(slotOffset(slot) + 8));
+            if (entry.kind == kind && entry.key.equals(key)) {
+                return entry.expiresAt < System.currentTimeMillis() ? null : entry.payload;
+            }
+        }
+    }
+
+    private void put(byte kind, String key, long expiration, PayloadWriter payload) throws IOException {
+        if (closed) return;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0); // Length placeholder
+        out.writeByte(kind);
+        out.writeLong(System.currentTimeMillis() + expiration);
+        out.writeUTF(key);
+        payload.write(out);
+        out.flush();
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.remaining() - 4);
+
+        long position = log.size();
+        while (buffer.hasRemaining()) log.write(buffer, position + buffer.position());
+        records++;
+
+        if ((size + 1) * 2 > capacity) grow();
+        insert(kind, key, hash(kind, key), position);
+        writeHeader();
+        if (shouldCompact()) compact();
+    }
+
+    /**
+     * Whether most of the log consists of entries that were overwritten by newer ones.
+     */
+    private boolean shouldCompact() {
+        return records > compactAfter && records > size * 2L;
+    }
+
+    private void insert(byte kind, String key, long hash, long position) throws IOException {
+        int mask = capacity - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int offset = slotOffset(slot);
+            long slotHash = index.getLong(offset);
+            if (slotHash == hash) {
+                Entry entry = readEntry(index.getLong(offset + 8));
+                if (entry.kind != kind || !entry.key.equals(key)) continue;
+            } else if (slotHash != 0) {
+                continue;
+            } else {
+                size++;
+            }
+
+            index.putLong(offset, hash);
+            index.putLong(offset + 8, position);
+            return;
+        }
+    }
+
+    private Entry readEntry(long position) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(4);
+        readFully(length, position);
+        ByteBuffer body = ByteBuffer.allocate(length.getInt(0));
+        readFully(body, position + 4);
+        return new Entry(body.array());
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (log.read(buffer, position + buffer.position()) < 0) throw new EOFException("Log ended at " + position);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a. Zero is reserved for empty slots.
+     */
+    private static long hash(byte kind, String key) {
+        long hash = 0xcbf29ce484222325L;
+        hash = (hash ^ kind) * 0x100000001b3L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 32;
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private void openFiles() throws IOException {
+        log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long logLength = log.size();
+
+        Path validIndex = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "profiles-*.idx")) {
+            for (Path file : files) {
+                if (validIndex == null && mapIfValid(file, logLength)) validIndex = file;
+                else Files.deleteIfExists(file);
+            }
+        }
+
+        if (validIndex == null) rebuildIndex();
+    }
+
+    private boolean mapIfValid(Path file, long logLength) throws IOException {
+        Matcher matcher = INDEX_FILE.matcher(file.getFileName().toString());
+        if (!matcher.matches()) return false;
+
+        int capacity;
+        try {
+            capacity = Integer.parseInt(matcher.group(1));
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (Integer.bitCount(capacity) != 1 || Files.size(file) != HEADER_SIZE + (long) capacity * SLOT_SIZE) return false;
+
+        MappedByteBuffer index = map(file, capacity);
+        if (index.getInt(0) != INDEX_MAGIC || index.getInt(4) != INDEX_VERSION ||
+                index.getInt(8) != capacity || index.getLong(16) != logLength) return false;
+
+        this.indexFile = file;
+        this.index = index;
+        this.capacity = capacity;
+        this.size = index.getInt(12);
+        this.records = index.getLong(24);
+        return true;
+    }
+
+    private static MappedByteBuffer map(Path file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed.
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) capacity * SLOT_SIZE);
+        }
+    }
+
+    private void newIndex(int capacity) throws IOException {
+        Path file = directory.resolve("profiles-" + capacity + ".idx");
+        if (file.equals(indexFile)) {
+            // Some platforms don't allow deleting mapped files, so the current mapping is cleared instead.
+            for (int offset = 0; offset < index.capacity(); offset += 8) index.putLong(offset, 0);
+        } else {
+            Files.deleteIfExists(file);
+            this.indexFile = file;
+            this.index = map(file, capacity);
+        }
+        this.capacity = capacity;
+        this.size = 0;
+    }
+
+    /**
+     * Scans the log and indexes the latest entry of every key.
+     * A partially written entry at the end of the log is removed.
+     */
+    private void rebuildIndex() throws IOException {
+        ProfileLogger.debug("Rebuilding persistent profile index in {}", directory);
+        newIndex(INITIAL_CAPACITY);
+        records = 0;
+
+        long position = 0, logLength = log.size();
+        while (position + 4 <= logLength) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            readFully(length, position);
+            int entryLength = length.getInt(0);
+            if (entryLength <= 0 || position + 4 + entryLength > logLength) break;
+
+            Entry entry;
+            try {
+                entry = readEntry(position);
+            } catch (IOException ex) {
+                break;
+            }
+
+            if ((size + 1) * 2 > capacity) grow();
+            insert(entry.kind, entry.key, hash(entry.kind, entry.key), position);
+            records++;
+            position += 4 + entryLength;
+        }
+
+        if (position != logLength) {
+            ProfileLogger.LOGGER.warn("Truncating corrupted persistent profile log at {} (length: {})", position, logLength);
+            log.truncate(position);
+        }
+        writeHeader();
+    }
+
+    private void grow() throws IOException {
+        MappedByteBuffer oldIndex = this.index;
+        int oldCapacity = this.capacity;
+        Path oldFile = this.indexFile;
+
+        newIndex(oldCapacity * 2);
+        int mask = capacity - 1;
+        for (int oldSlot = 0; oldSlot < oldCapacity; oldSlot++) {
+            long hash = oldIndex.getLong(slotOffset(oldSlot));
+            if (hash == 0) continue;
+
+            // Keys are already unique, so there's no need to compare them.
+            int slot = (int) hash & mask;
+            while (index.getLong(slotOffset(slot)) != 0) slot = (slot + 1) & mask;
+            index.putLong(slotOffset(slot), hash);
+            index.putLong(slotOffset(slot) + 8, oldIndex.getLong(slotOffset(oldSlot) + 8));
+            size++;
+        }
+
+        writeHeader();
+        try {
+            Files.deleteIfExists(oldFile);
+        } catch (IOException ex) {
+            // Some platforms don't allow deleting mapped files, it'll be deleted when opened next time.
+            ProfileLogger.debug("Couldn't delete old persistent profile index {}: {}", oldFile, ex);
+        }
+    }
+
+    private void writeHeader() throws IOException {
+        index.putInt(0, INDEX_MAGIC);
+        index.putInt(4, INDEX_VERSION);
+        index.putInt(8, capacity);
+        index.putInt(12, size);
+        index.putLong(16, log.size());
+        index.putLong(24, records);
+    }
+
+    /**
+     * Rewrites the log with only the latest entry of every key that hasn't expired.
+     * The current log is kept if the compacted log couldn't replace it.
+     */
+    private void compact() throws IOException {
+        Path logFile = directory.resolve(LOG_FILE);
+        Path compacted = directory.resolve(LOG_FILE + ".compact");
+        long now = System.currentTimeMillis();
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int slot = 0; slot < capacity; slot++) {
+                if (index.getLong(slotOffset(slot)) == 0) continue;
+
+                long position = index.getLong(slotOffset(slot) + 8);
+                ByteBuffer length = ByteBuffer.allocate(4);
+                readFully(length, position);
+                ByteBuffer entry = ByteBuffer.allocate(4 + length.getInt(0));
+                readFully(entry, position);
+                if (entry.getLong(5) < now) continue; // Skip the length and kind
+
+                entry.flip();
+                while (entry.hasRemaining()) out.write(entry);
+            }
+            out.force(true);
+        }
+
+        // Some platforms don't allow replacing open files.
+        Path oldIndexFile = this.indexFile;
+        log.close();
+        try {
+            logReplacer.replace(compacted, logFile);
+        } catch (IOException ex) {
+            ProfileLogger.debug("Couldn't replace persistent profile log with the compacted one: {}", ex);
+            Files.deleteIfExists(compacted);
+            compactAfter = records * 2;
+            return;
+        } finally {
+            this.log = FileChannel.open(logFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        compactAfter = INITIAL_CAPACITY;
+        rebuildIndex();
+
+        if (!oldIndexFile.equals(indexFile)) {
+            try {
+                Files.deleteIfExists(oldIndexFile);
+            } catch (IOException ex) {
+                ProfileLogger.debug("Couldn't delete old persistent profile index {}: {}", oldIndexFile, ex);
+            }
+        }
+    }
+
+    private static void replaceLog(Path compacted, Path log) throws IOException {
+        try {
+            Files.move(compacted, log, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(compacted, log, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Changes how the log is replaced with the compacted one. Only used for testing platforms
+     * that can't replace the log.
+     */
+    @ApiStatus.Internal
+    public synchronized void setLogReplacer(@NotNull LogReplacer logReplacer) {
+        this.logReplacer = Objects.requireNonNull(logReplacer, "Log replacer is null");
+    }
+
+    /**
+     * @see #setLogReplacer(LogReplacer)
+     */
+    @ApiStatus.Internal
+    @FunctionalInterface
+    public interface LogReplacer {
+        void replace(@NotNull Path compacted, @NotNull Path log) throws IOException;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        index.force();
+        log.close();
+    }
+}
@@ -25,20 +25,29 @@ package com.cryptomorin.xseries.profiles.mojang;
 import com.cryptomorin.xseries.profiles.ProfileLogger;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @ApiStatus.Internal
 public final class PlayerProfileFetcherThread implements ThreadFactory {
     /**
-     * An executor service with a fixed thread pool of size 2, used for asynchronous operations.
+     * The executor used for asynchronous profile operations.
+     * This forwards the tasks to the executor set by {@link #setExecutor(ExecutorService)}, which is
+     * a pool of up to 2 threads by default.
      */
-    public static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2, new PlayerProfileFetcherThread());
+    public static final ExecutorService EXECUTOR = new DelegatingExecutor();
 
     private static final AtomicInteger COUNT = new AtomicInteger();
+    private static final AtomicInteger QUEUED = new AtomicInteger(), ACTIVE = new AtomicInteger();
+
+    private static volatile ExecutorService delegate = newElasticExecutor(2);
+    private static volatile boolean ownsDelegate = true;
 
     @Override
     public Thread newThread(@NotNull final Runnable run) {
@@ -48,4 +57,183 @@ public final class PlayerProfileFetcherThread implements ThreadFactory {
                 ProfileLogger.LOGGER.error("Uncaught exception in thread {}", t.getName(), throwable));
         return thread;
     }
-}
\ No newline at end of file
+
+    /**
+     * Changes the executor that {@link #EXECUTOR} runs the tasks on.
+     * Tasks that were already submitted still run on the previous executor.
+     * The previous executor is only shut down if it was created by this class.
+     *
+     * @param executor the executor to use, which will not be shut down by this class.
+     */
+    public static synchronized void setExecutor(@NotNull ExecutorService executor) {
+        setExecutor(executor, false);
+    }
+
+    private static synchronized void setExecutor(ExecutorService executor, boolean owned) {
+        Objects.requireNonNull(executor, "Executor is null");
+        ExecutorService previous = delegate;
+        boolean ownedPrevious = ownsDelegate;
+
+        delegate = executor;
+        ownsDelegate = owned;
+        if (ownedPrevious && previous != executor) previous.shutdown();
+    }
+
+    /**
+     * Uses a new thread for each task using virtual threads if they're supported (Java 21+),
+     * otherwise uses {@link #newElasticExecutor(int)}.
+     *
+     * @param maxThreads the maximum number of platform threads if virtual threads are not supported.
+     * @return true if virtual threads are used.
+     */
+    public static boolean useVirtualThreads(int maxThreads) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        setExecutor(virtual == null ? newElasticExecutor(maxThreads) : virtual, true);
+        return virtual != null;
+    }
+
+    /**
+     * @return null if virtual threads are not supported by this JVM.
+     */
+    @Nullable
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Java 21+
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException ex) {
+            return null;
+        } catch (Throwable ex) {
+            ProfileLogger.LOGGER.error("Failed to create a virtual thread executor", ex);
+            return null;
+        }
+    }
+
+    /**
+     * An executor that creates up to {@code maxThreads} threads when needed, and stops
+     * them after they've been idle for a minute. Extra tasks are queued.
+     */
+    @NotNull
+    public static ExecutorService newElasticExecutor(int maxThreads) {
+        if (maxThreads <= 0) throw new IllegalArgumentException("Max threads must be positive: " + maxThreads);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                1L, TimeUnit.MINUTES, new LinkedBlockingQueue<>(), new PlayerProfileFetcherThread());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * @return the number of tasks that are submitted to {@link #EXECUTOR} and are waiting to run.
+     */
+    public static int getQueueSize() {
+        return QUEUED.get();
+    }
+
+    /**
+     * @return the number of tasks of {@link #EXECUTOR} that are currently running.
+     */
+    public static int getActiveCount() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Forwards everything to the current {@link #delegate} while counting the
+     * tasks for {@link #getQueueSize()} and {@link #getActiveCount()}.
+     * <p>
+     * Shutting this down only shuts down the delegate if it was created by this class,
+     * executors passed to {@link #setExecutor(ExecutorService)} are left running.
+     */
+    private static final class DelegatingExecutor extends AbstractExecutorService {
+        private volatile boolean shutdown;
+
+        @Override
+        public void execute(@NotNull Runnable command) {
+            Objects.requireNonNull(command);
+            if (shutdown) throw new RejectedExecutionException("Profile executor has been shut down");
+
+            QUEUED.incrementAndGet();
+            Runnable task = () -> {
+                // Increment first so the executor is never seen as terminated while this task is running.
+                ACTIVE.incrementAndGet();
+                QUEUED.decrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    ACTIVE.decrementAndGet();
+                    if (shutdown) signalTermination();
+                }
+            };
+
+            try {
+                ExecutorService executor = delegate;
+                while (true) {
+                    try {
+                        executor.execute(task);
+                        return;
+                    } catch (RejectedExecutionException ex) {
+                        // The executor was changed by setExecutor() and the previous one was shut down
+                        // while we were submitting to it, so try again with the new one.
+                        ExecutorService current = delegate;
+                        if (current == executor || shutdown) throw ex;
+                        executor = current;
+                    }
+                }
+            } catch (Throwable ex) {
+                QUEUED.decrementAndGet();
+                if (shutdown) signalTermination();
+                throw ex;
+            }
+        }
+
+        private synchronized void signalTermination() {
+            if (QUEUED.get() == 0 && ACTIVE.get() == 0) notifyAll();
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+            synchronized (PlayerProfileFetcherThread.class) {
+                if (ownsDelegate) delegate.shutdown();
+            }
+            signalTermination();
+        }
+
+        /**
+         * The tasks that are not started yet are only returned if the delegate was created by this class.
+         */
+        @NotNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> tasks;
+            synchronized (PlayerProfileFetcherThread.class) {
+                tasks = ownsDelegate ? delegate.shutdownNow() : Collections.emptyList();
+            }
+            // These will never run.
+            QUEUED.addAndGet(-tasks.size());
+            signalTermination();
+            return tasks;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && QUEUED.get() == 0 && ACTIVE.get() == 0;
+        }
+
+        @Override
+        public synchronized boolean awaitTermination(long timeout, @NotNull TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (!isTerminated()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) return false;
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+}
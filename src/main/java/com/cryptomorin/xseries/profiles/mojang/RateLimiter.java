@@ -22,13 +22,11 @@
 
 package com.cryptomorin.xseries.profiles.mojang;
 
-import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import org.jetbrains.annotations.ApiStatus;
-import org.jetbrains.annotations.Unmodifiable;
 
 import java.time.Duration;
-import java.util.Iterator;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Used for {@link MojangAPI} requests.
@@ -55,85 +53,122 @@ import java.util.concurrent.ConcurrentLinkedQueue;
  */
 @ApiStatus.Internal
 public final class RateLimiter {
-    private final ConcurrentLinkedQueue<Long> requests = new ConcurrentLinkedQueue<>();
+    /**
+     * The state of the limiter using the Generic Cell Rate Algorithm (GCRA), which is equivalent to a token bucket.
+     * This is the time (from {@link System#nanoTime()}) that the bucket would be empty at, if no more requests
+     * are sent. A request is allowed if this time is not more than {@link #per} ahead of the current time.
+     */
+    private final AtomicLong theoreticalArrivalTime;
     private final int maxRequests;
-    private final long per;
+    /**
+     * In nanoseconds.
+     */
+    private final long per, emissionInterval;
 
-    RateLimiter(int maxRequests, Duration per) {
+    public RateLimiter(int maxRequests, Duration per) {
+        if (maxRequests <= 0) throw new IllegalArgumentException("Max requests must be positive: " + maxRequests);
         this.maxRequests = maxRequests;
-        this.per = per.toMillis();
+        this.per = per.toNanos();
+        this.emissionInterval = Math.max(1, this.per / maxRequests);
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
     }
 
-    @CanIgnoreReturnValue
-    @Unmodifiable
-    private ConcurrentLinkedQueue<Long> getRequests() {
-        if (requests.isEmpty()) return requests;
-
-        // Implementing a cleanup delay is practically not any different
-        // from just letting this loop to happen in terms of performance.
-        long now = System.currentTimeMillis();
-        Iterator<Long> iter = requests.iterator();
-        while (iter.hasNext()) {
-            long requestedAt = iter.next();
-            long diff = now - requestedAt;
-            if (diff > per) iter.remove();
-            else break; // Requests are ordered, so if this fails, the others will fail too.
-        }
-
-        return requests;
+    private static final class Scheduler {
+        /**
+         * Only used to complete futures, the requests themselves don't run on this thread.
+         */
+        private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(run -> {
+            Thread thread = new Thread(run, "XSeries RateLimiter Scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     public int getRemainingRequests() {
-        return Math.max(0, maxRequests - getRequests().size());
+        long now = System.nanoTime();
+        long used = Math.max(0, theoreticalArrivalTime.get() - now);
+        long remaining = (per - used) / emissionInterval;
+        return (int) Math.max(0, Math.min(maxRequests, remaining));
     }
 
     public int getEffectiveRequestsCount() {
-        return getRequests().size();
+        return maxRequests - getRemainingRequests();
     }
 
     public void instantRateLimit() {
-        long now = System.currentTimeMillis();
-        for (int i = 0; i < getRemainingRequests(); i++) {
-            requests.add(now);
-        }
+        long limited = System.nanoTime() + per;
+        long current;
+        do {
+            current = theoreticalArrivalTime.get();
+            if (current - limited >= 0) return;
+        } while (!theoreticalArrivalTime.compareAndSet(current, limited));
     }
 
     public boolean acquire() {
-        if (getRemainingRequests() <= 0) {
-            return false;
-        } else {
-            requests.add(System.currentTimeMillis());
-            return true;
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, now) + emissionInterval;
+            if (next - now > per) return false;
+            if (theoreticalArrivalTime.compareAndSet(current, next)) return true;
         }
     }
 
-    public Duration timeUntilNextFreeRequest() {
-        if (getRemainingRequests() == 0) {
-            long now = System.currentTimeMillis();
-            long oldestRequestedAt = requests.peek();
-            long diff = now - oldestRequestedAt;
-            return Duration.ofMillis(per - diff);
+    /**
+     * Reserves a request even if the limit has been reached.
+     *
+     * @return the nanoseconds to wait before the reserved request can be sent.
+     */
+    private long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long current = theoreticalArrivalTime.get();
+            long next = Math.max(current, now) + emissionInterval;
+            if (theoreticalArrivalTime.compareAndSet(current, next)) return Math.max(0, next - per - now);
         }
-        return Duration.ZERO;
     }
 
-    public synchronized void acquireOrWait() {
-        long sleepUntil = timeUntilNextFreeRequest().toMillis();
-        if (sleepUntil == 0) return;
+    public Duration timeUntilNextFreeRequest() {
+        long now = System.nanoTime();
+        long next = Math.max(theoreticalArrivalTime.get(), now) + emissionInterval;
+        return Duration.ofNanos(Math.max(0, next - per - now));
+    }
+
+    /**
+     * Reserves a request and blocks the current thread until it can be sent.
+     */
+    public void acquireOrWait() {
+        long wait = reserve();
+        if (wait == 0) return;
         try {
-            Thread.sleep(sleepUntil);
+            TimeUnit.NANOSECONDS.sleep(wait);
         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new IllegalStateException("RateLimiter lock was interrupted unexpectedly", e);
         }
     }
 
+    /**
+     * Reserves a request without blocking the current thread.
+     *
+     * @return a future that completes when the reserved request can be sent.
+     */
+    public CompletableFuture<Void> acquireAsync() {
+        long wait = reserve();
+        if (wait == 0) return CompletableFuture.completedFuture(null);
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Scheduler.SCHEDULER.schedule(() -> future.complete(null), wait, TimeUnit.NANOSECONDS);
+        return future;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() +
-                "[total=" + getRequests().size() +
+                "[total=" + getEffectiveRequestsCount() +
                 ", remaining=" + getRemainingRequests() +
                 ", maxRequests=" + maxRequests +
-                ", per=" + per +
+                ", per=" + Duration.ofNanos(per) +
                 ']';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.profiles.mojang;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Proxy;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Sends requests using {@link HttpURLConnection}.
+ * The JDK keeps the connections alive and reuses them (see {@code http.keepAlive} system property)
+ * as long as the response body is fully read and closed, which is what {@link MinecraftClient} does.
+ * <p>
+ * This is used on Java 8 where {@link JavaHttpClientTransport} is not available.
+ */
+@ApiStatus.Internal
+public final class URLConnectionTransport implements HttpTransport {
+    private final Proxy proxy;
+
+    public URLConnectionTransport(@NotNull Proxy proxy) {
+        this.proxy = Objects.requireNonNull(proxy);
+    }
+
+    @Override
+    public @NotNull Response send(@NotNull Request request) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) request.uri.toURL().openConnection(proxy);
+        connection.setRequestMethod(request.method);
+        connection.setConnectTimeout((int) request.connectTimeout.toMillis());
+        connection.setReadTimeout((int) request.readTimeout.toMillis());
+        connection.setDoInput(true);
+        connection.setUseCaches(false);
+        connection.setAllowUserInteraction(false);
+        for (Map.Entry<String, String> header : request.headers.entrySet()) {
+            connection.setRequestProperty(header.getKey(), header.getValue());
+        }
+
+        if (request.body != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Length", String.valueOf(request.body.length));
+            try (OutputStream outputStream = connection.getOutputStream()) {
+                outputStream.write(request.body);
+            }
+        } else {
+            connection.setDoOutput(false);
+        }
+
+        int statusCode = connection.getResponseCode();
+        return new Response() {
+            private InputStream body;
+
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public @Nullable InputStream body() throws IOException {
+                if (body == null) body = statusCode >= 400 ? connection.getErrorStream() : connection.getInputStream();
+                return body;
+            }
+
+            @Override
+            public void close() throws IOException {
+                // Don't disconnect(), that would close the connection instead of returning it to the keep-alive cache.
+                InputStream body = body();
+                if (body != null) body.close();
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "URLConnectionTransport[proxy=" + proxy + ']';
+    }
+}
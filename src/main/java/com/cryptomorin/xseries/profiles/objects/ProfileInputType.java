@@ -29,7 +29,6 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Arrays;
 import java.util.Objects;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -51,8 +50,7 @@ public enum ProfileInputType {
     TEXTURE_HASH(Pattern.compile("[0-9a-z]{55,70}")) {
         @Override
         public GameProfile getProfile(String textureHash) {
-            String base64 = PlayerProfiles.encodeBase64(PlayerProfiles.TEXTURES_NBT_PROPERTY_PREFIX + PlayerProfiles.TEXTURES_BASE_URL + textureHash + "\"}}}");
-            return PlayerProfiles.profileFromHashAndBase64(textureHash, base64);
+            return PlayerProfiles.profileFromHash(textureHash);
         }
     },
 
@@ -151,9 +149,119 @@ public enum ProfileInputType {
     @Nullable
     public static ProfileInputType typeOf(@NotNull String identifier) {
         Objects.requireNonNull(identifier, "Identifier cannot be null");
-        return Arrays.stream(VALUES)
-                .filter(value -> value.pattern.matcher(identifier).matches())
-                .findFirst().orElse(null);
+        return classify(identifier);
+    }
+
+    /**
+     * Same as {@link #typeOf(String)}, but checks the {@link #pattern} of every type in order.
+     * This is much slower and only kept as a reference for the patterns.
+     */
+    @Nullable
+    @ApiStatus.Internal
+    public static ProfileInputType typeOfByPattern(@NotNull String identifier) {
+        Objects.requireNonNull(identifier, "Identifier cannot be null");
+        for (ProfileInputType value : VALUES) {
+            if (value.pattern.matcher(identifier).matches()) return value;
+        }
+        return null;
+    }
+
+    private static final int
+            USERNAME_MAX_LENGTH = 16, UUID_LENGTH = 36,
+            HASH_MIN_LENGTH = 55, HASH_MAX_LENGTH = 70,
+            BASE64_MIN_LENGTH = 100, BASE64_MAX_PADDING = 3;
+    private static final String URL_TEXTURES_SUBDOMAIN = "textures.", URL_TEXTURE_PATH = "minecraft.net/texture/";
+
+    /**
+     * Decides the type only from the length and the character classes without any allocations.
+     * The length ranges of all the types don't overlap (except for {@link #TEXTURE_URL} and {@link #BASE64}
+     * which are told apart by the URL prefix) so at most one scan of the string is needed.
+     * This must always agree with {@link #typeOfByPattern(String)}.
+     */
+    @Nullable
+    private static ProfileInputType classify(String str) {
+        int length = str.length();
+        if (length == 0) return null;
+        if (length <= USERNAME_MAX_LENGTH) return isUsername(str) ? USERNAME : null;
+        if (length == UUID_LENGTH) return isUUID(str) ? UUID : null;
+        if (length >= HASH_MIN_LENGTH && length <= HASH_MAX_LENGTH) {
+            return isHash(str, 0, false) ? TEXTURE_HASH : null;
+        }
+
+        int hashStart = textureUrlHashStart(str);
+        if (hashStart != -1) {
+            int hashLength = length - hashStart;
+            return hashLength >= HASH_MIN_LENGTH && hashLength <= HASH_MAX_LENGTH && isHash(str, hashStart, true)
+                    ? TEXTURE_URL : null;
+        }
+
+        return length >= BASE64_MIN_LENGTH && isBase64(str) ? BASE64 : null;
+    }
+
+    private static boolean isUsername(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            if (!isAlphanumeric(ch) && ch != '_') return false;
+        }
+        return true;
+    }
+
+    private static boolean isUUID(String str) {
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char ch = str.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (ch != '-') return false;
+            } else if (!((ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'f') || (ch >= 'A' && ch <= 'F'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHash(String str, int from, boolean ignoreCase) {
+        for (int i = from; i < str.length(); i++) {
+            char ch = str.charAt(i);
+            if (!((ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z') || (ignoreCase && ch >= 'A' && ch <= 'Z')))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the index after the "minecraft.net/texture/" part of the URL or -1 if it's not a texture URL.
+     */
+    private static int textureUrlHashStart(String str) {
+        int index = 0;
+        if (str.regionMatches(true, 0, "http", 0, 4)) {
+            index = 4;
+            if (str.regionMatches(true, index, "s", 0, 1)) index++;
+            if (!str.startsWith("://", index)) return -1;
+            index += 3;
+        }
+        if (str.regionMatches(true, index, URL_TEXTURES_SUBDOMAIN, 0, URL_TEXTURES_SUBDOMAIN.length())) {
+            index += URL_TEXTURES_SUBDOMAIN.length();
+        }
+        if (!str.regionMatches(true, index, URL_TEXTURE_PATH, 0, URL_TEXTURE_PATH.length())) return -1;
+        return index + URL_TEXTURE_PATH.length();
+    }
+
+    private static boolean isBase64(String str) {
+        int length = str.length();
+        int i = 0;
+        for (; i < length; i++) {
+            char ch = str.charAt(i);
+            if (!isAlphanumeric(ch) && ch != '+' && ch != '/' && ch != '-') break;
+        }
+
+        if (i < BASE64_MIN_LENGTH || length - i > BASE64_MAX_PADDING) return false;
+        for (; i < length; i++) {
+            if (str.charAt(i) != '=') return false;
+        }
+        return true;
+    }
+
+    private static boolean isAlphanumeric(char ch) {
+        return (ch >= '0' && ch <= '9') || (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
     }
 
     /**
@@ -339,6 +339,12 @@ public interface Profileable {
             if (PlayerProfiles.hasTextures(profile)) return profile;
             return MojangAPI.getOrFetchProfile(profile);
         }
+
+        @Override
+        protected Object requestKey() {
+            // Usernames are case-insensitive.
+            return username.toLowerCase(Locale.ENGLISH);
+        }
     }
 
     @ApiStatus.Internal
@@ -358,6 +364,11 @@ public interface Profileable {
             if (PlayerProfiles.hasTextures(profile)) return profile;
             return MojangAPI.getOrFetchProfile(profile);
         }
+
+        @Override
+        protected Object requestKey() {
+            return id;
+        }
     }
 
     @ApiStatus.Internal
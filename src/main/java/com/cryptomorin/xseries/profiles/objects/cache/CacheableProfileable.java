@@ -22,12 +22,17 @@
 
 package com.cryptomorin.xseries.profiles.objects.cache;
 
+import com.cryptomorin.xseries.profiles.ProfileLogger;
 import com.cryptomorin.xseries.profiles.exceptions.MojangAPIRetryException;
+import com.cryptomorin.xseries.profiles.mojang.PlayerProfileFetcherThread;
 import com.cryptomorin.xseries.profiles.objects.Profileable;
 import com.cryptomorin.xseries.reflection.XReflection;
 import com.mojang.authlib.GameProfile;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Any {@link Profileable} that can have its results cached.
@@ -38,6 +43,12 @@ public abstract class CacheableProfileable implements Profileable {
     protected GameProfile cache;
     protected Throwable lastError;
 
+    /**
+     * The last time {@link #cache} was fetched successfully in {@link System#currentTimeMillis()}.
+     */
+    protected long cachedAt;
+    private boolean revalidating;
+
     @Override
     public final synchronized GameProfile getProfile() {
         // Synchronized in case two threads try to access the
@@ -45,9 +56,12 @@ public abstract class CacheableProfileable implements Profileable {
         // will wait for the first one to cache the results so the other threads
         // can start accessing the cache instantly instead of sending multiple
         // requests for the same data.
-        // This of course doesn't fix the issue if two separate Profileables
-        // are used for a single value and both are somehow requested at the same time.
+        // Separate Profileables for the same value are handled by ProfileRequestCoalescer.
         if (hasExpired(true)) {
+            if (cache != null && lastError == null && serveStale()) {
+                revalidate();
+                return cache;
+            }
             lastError = null;
             cache = null;
         }
@@ -58,7 +72,8 @@ public abstract class CacheableProfileable implements Profileable {
 
         if (cache == null) {
             try {
-                cache = getProfile0();
+                cache = fetch();
+                cachedAt = System.currentTimeMillis();
                 lastError = null;
             } catch (Throwable ex) {
                 lastError = ex;
@@ -69,6 +84,54 @@ public abstract class CacheableProfileable implements Profileable {
         return cache;
     }
 
+    private GameProfile fetch() {
+        Object key = requestKey();
+        return key == null ? getProfile0() : ProfileRequestCoalescer.request(key, this::getProfile0);
+    }
+
+    /**
+     * Refreshes the expired cache on {@link PlayerProfileFetcherThread#EXECUTOR}
+     * while the old value is still being served.
+     */
+    private void revalidate() {
+        if (revalidating) return;
+        revalidating = true;
+        try {
+            PlayerProfileFetcherThread.EXECUTOR.execute(this::refresh);
+        } catch (RejectedExecutionException ex) {
+            revalidating = false;
+            ProfileLogger.debug("Failed to schedule revalidation of {}: {}", this, ex);
+        }
+    }
+
+    private void refresh() {
+        GameProfile profile = null;
+        try {
+            profile = fetch();
+        } catch (Throwable ex) {
+            // Keep serving the old profile until serveStale() gives up on it.
+            ProfileLogger.debug("Failed to revalidate {}: {}", this, ex);
+        }
+
+        synchronized (this) {
+            revalidating = false;
+            if (profile != null) {
+                cache = profile;
+                cachedAt = System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Called when the cache has expired, but a previous profile is available.
+     *
+     * @return true if the expired profile should be returned while it's refreshed in the background,
+     * otherwise the caller fetches the profile again.
+     */
+    protected boolean serveStale() {
+        return false;
+    }
+
     /**
      * @return true if this profile hasn't been cached yet or the cache is expired.
      */
@@ -83,6 +146,17 @@ public abstract class CacheableProfileable implements Profileable {
     @NotNull
     protected abstract GameProfile getProfile0();
 
+    /**
+     * A normalized key which is the same for all profileables that request the same data.
+     * If not null, concurrent requests with the same key only send a single request.
+     *
+     * @see ProfileRequestCoalescer
+     */
+    @Nullable
+    protected Object requestKey() {
+        return null;
+    }
+
     @Override
     public final String toString() {
         return this.getClass().getSimpleName() + "[cache=" + cache + ", lastError=" + lastError + ']';
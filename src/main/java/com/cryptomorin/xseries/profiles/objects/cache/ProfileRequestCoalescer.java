@@ -0,0 +1,83 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.profiles.objects.cache;
+
+import com.cryptomorin.xseries.reflection.XReflection;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Makes sure that only one request is sent at a time for the same key.
+ * Other callers that request the same key while the first request is still running
+ * will wait for it and receive the same result (or the same exception) instead of sending
+ * their own request.
+ * <p>
+ * Results are not kept after the request is done, that's what the caches are for.
+ */
+@ApiStatus.Internal
+public final class ProfileRequestCoalescer {
+    private static final ConcurrentMap<Object, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private ProfileRequestCoalescer() {}
+
+    /**
+     * @param key     a normalized key that represents the requested data, such as a lowercase username or a UUID.
+     * @param request the request that is only executed if there are no other requests running for this key.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T request(@NotNull Object key, @NotNull Supplier<T> request) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = IN_FLIGHT.putIfAbsent(key, future);
+        if (inFlight != null) {
+            try {
+                return (T) inFlight.join();
+            } catch (CompletionException ex) {
+                throw XReflection.throwCheckedException(ex.getCause());
+            }
+        }
+
+        try {
+            T result = request.get();
+            future.complete(result);
+            return result;
+        } catch (Throwable ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            IN_FLIGHT.remove(key, future);
+        }
+    }
+
+    /**
+     * @return the number of requests that are currently running.
+     */
+    public static int inFlight() {
+        return IN_FLIGHT.size();
+    }
+}
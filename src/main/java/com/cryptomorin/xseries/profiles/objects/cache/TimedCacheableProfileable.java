@@ -27,6 +27,7 @@ import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
 import java.time.Duration;
+import java.util.Objects;
 
 /**
  * Any {@link Profileable} that can have its results cached temporarily.
@@ -34,8 +35,35 @@ import java.time.Duration;
  */
 @ApiStatus.Internal
 public abstract class TimedCacheableProfileable extends CacheableProfileable {
+    private static volatile Duration defaultExpiration = Duration.ofHours(6);
+    private static volatile Duration defaultStaleExpiration = Duration.ofDays(1);
+
     private long lastUpdate;
 
+    /**
+     * Changes the expiration of all profiles that don't override {@link #expiresAfter()} and {@link #staleExpiresAfter()}.
+     * <p>
+     * After the soft expiration, the profile is still returned instantly while it's being
+     * refreshed on {@link com.cryptomorin.xseries.profiles.mojang.PlayerProfileFetcherThread#EXECUTOR}.
+     * After the hard expiration, the next call blocks until the profile is fetched again.
+     *
+     * @param expiration      the soft TTL, {@link Duration#ZERO} to never expire.
+     * @param staleExpiration the hard TTL counted from the last successful fetch,
+     *                        {@link Duration#ZERO} to always block on expiration.
+     * @since 13.0.0
+     */
+    public static void setDefaultExpiration(@NotNull Duration expiration, @NotNull Duration staleExpiration) {
+        Objects.requireNonNull(expiration, "Expiration cannot be null");
+        Objects.requireNonNull(staleExpiration, "Stale expiration cannot be null");
+        if (expiration.isNegative() || staleExpiration.isNegative())
+            throw new IllegalArgumentException("Negative expiration: " + expiration + " - " + staleExpiration);
+        if (!staleExpiration.isZero() && staleExpiration.compareTo(expiration) < 0)
+            throw new IllegalArgumentException("Stale expiration " + staleExpiration + " is shorter than the expiration " + expiration);
+
+        defaultExpiration = expiration;
+        defaultStaleExpiration = staleExpiration;
+    }
+
     /**
      * The amount of time the cached results of this profile can be used until it's re-evaluated.
      * By default, it uses the internal cache's expiration date (6 hours)
@@ -43,7 +71,26 @@ public abstract class TimedCacheableProfileable extends CacheableProfileable {
      */
     @NotNull
     protected Duration expiresAfter() {
-        return Duration.ofHours(6);
+        return defaultExpiration;
+    }
+
+    /**
+     * The amount of time since the last successful fetch that the expired results can still be
+     * returned while they're refreshed in the background. By default, it's 1 day.
+     * {@link Duration#ZERO} disables this and expired profiles are fetched again on the caller's thread.
+     *
+     * @since 13.0.0
+     */
+    @NotNull
+    protected Duration staleExpiresAfter() {
+        return defaultStaleExpiration;
+    }
+
+    @Override
+    protected final boolean serveStale() {
+        Duration staleExpiresAfter = staleExpiresAfter();
+        if (staleExpiresAfter.isZero()) return false;
+        return System.currentTimeMillis() - cachedAt < staleExpiresAfter.toMillis();
     }
 
     /**
@@ -23,12 +23,14 @@
 package com.cryptomorin.xseries.reflection.minecraft;
 
 import com.cryptomorin.xseries.reflection.XReflection;
+import com.google.common.collect.ImmutableList;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.lang.invoke.MethodHandle;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 import static com.cryptomorin.xseries.reflection.XReflection.ofMinecraft;
@@ -60,6 +62,12 @@ public final class MinecraftConnection {
     public static final MinecraftClassHandle Packet = ofMinecraft()
             .inPackage(MinecraftPackage.NMS, "network.protocol")
             .map(MinecraftMapping.SPIGOT, "Packet");
+    /**
+     * Added in v1.19.4, the client handles all the packets inside a bundle in the same tick.
+     */
+    public static final MinecraftClassHandle BundlePacket = ofMinecraft()
+            .inPackage(MinecraftPackage.NMS, "network.protocol.game")
+            .named("ClientboundBundlePacket");
 
     private static final MethodHandle PLAYER_CONNECTION = ServerPlayer
             // .getterField(v(20, 5, "connection").v(20, "c").v(17, "b").orElse("playerConnection"))
@@ -91,6 +99,14 @@ public final class MinecraftConnection {
             .map(MinecraftMapping.MOJANG, "send")
             .map(MinecraftMapping.OBFUSCATED, v(20, 2, "b").v(18, "a").orElse("sendPacket"))
             .unreflect();
+    /**
+     * {@code public ClientboundBundlePacket(Iterable<Packet<? super ClientGamePacketListener>> packets)}
+     */
+    private static final MethodHandle NEW_BUNDLE_PACKET = BundlePacket.constructor(Iterable.class).reflectOrNull();
+    /**
+     * The client disconnects when a bundle reaches 4096 packets.
+     */
+    private static final int MAX_BUNDLE_SIZE = 4095;
 
     @NotNull
     public static Object getHandle(@NotNull Player player) {
@@ -143,4 +159,51 @@ public final class MinecraftConnection {
             throw new IllegalStateException("Failed to send packet to " + player + ": " + Arrays.toString(packets), throwable);
         }
     }
+
+    /**
+     * Whether {@link #sendBundle(Player, List)} can group packets into a single bundle packet.
+     *
+     * @since 13.0.0
+     */
+    public static boolean supportsBundles() {
+        return NEW_BUNDLE_PACKET != null;
+    }
+
+    /**
+     * Sends the packets to the player inside bundle packets if they're online, so the connection
+     * is only flushed once for every bundle instead of once for every packet.
+     * Packets are sent individually in versions that don't support bundles.
+     * <p>
+     * The packets are copied, so the list can be reused after this method returns.
+     *
+     * @param player  the player to send the packets to.
+     * @param packets the packets to send.
+     * @see #sendPacket(Player, Object...)
+     * @since 13.0.0
+     */
+    public static void sendBundle(@NotNull Player player, @NotNull List<Object> packets) {
+        Objects.requireNonNull(player, "Can't send packet bundle to null player");
+        Objects.requireNonNull(packets, () -> "Can't send null packet bundle to player: " + player);
+
+        int size = packets.size();
+        if (size == 0) return;
+        if (NEW_BUNDLE_PACKET == null || size == 1) {
+            sendPacket(player, packets.toArray());
+            return;
+        }
+
+        try {
+            Object handle = GET_HANDLE.invoke(player);
+            Object connection = PLAYER_CONNECTION.invoke(handle);
+            if (connection == null) return;
+
+            for (int from = 0; from < size; from += MAX_BUNDLE_SIZE) {
+                // The bundle keeps a reference to the iterable and reads it later from the network thread.
+                List<Object> bundle = ImmutableList.copyOf(packets.subList(from, Math.min(size, from + MAX_BUNDLE_SIZE)));
+                SEND_PACKET.invoke(connection, NEW_BUNDLE_PACKET.invoke(bundle));
+            }
+        } catch (Throwable throwable) {
+            throw new IllegalStateException("Failed to send packet bundle to " + player + " (" + size + " packets)", throwable);
+        }
+    }
 }
@@ -27,12 +27,21 @@ import com.cryptomorin.xseries.base.XBase;
 import com.cryptomorin.xseries.base.XRegistry;
 import com.cryptomorin.xseries.messages.ActionBar;
 import com.cryptomorin.xseries.messages.Titles;
+import com.cryptomorin.xseries.particles.ParticleAnimation;
 import com.cryptomorin.xseries.particles.ParticleDisplay;
+import com.cryptomorin.xseries.particles.ParticleShape;
+import com.cryptomorin.xseries.particles.Particles;
 import com.cryptomorin.xseries.particles.XParticle;
 import com.cryptomorin.xseries.profiles.builder.XSkull;
+import com.cryptomorin.xseries.profiles.mojang.MinecraftClient;
 import com.cryptomorin.xseries.profiles.mojang.MojangAPI;
+import com.cryptomorin.xseries.profiles.mojang.PersistentProfileCache;
+import com.cryptomorin.xseries.profiles.mojang.RateLimiter;
+import com.cryptomorin.xseries.profiles.objects.ProfileInputType;
 import com.cryptomorin.xseries.profiles.objects.Profileable;
+import com.cryptomorin.xseries.profiles.objects.cache.TimedCacheableProfileable;
 import com.cryptomorin.xseries.profiles.objects.transformer.ProfileTransformer;
+import com.cryptomorin.xseries.profiles.PlayerProfiles;
 import com.cryptomorin.xseries.reflection.XReflection;
 import com.cryptomorin.xseries.test.reflection.ReflectionTests;
 import com.cryptomorin.xseries.test.reflection.ReflectiveConstraintTests;
@@ -42,6 +51,9 @@ import com.cryptomorin.xseries.test.server.FakePlayerFactory;
 import com.cryptomorin.xseries.test.util.ResourceHelper;
 import com.cryptomorin.xseries.test.writer.ClassConverter;
 import com.cryptomorin.xseries.test.writer.DifferenceHelper;
+import com.google.gson.JsonElement;
+import com.mojang.authlib.GameProfile;
+import com.sun.net.httpserver.HttpServer;
 import org.bukkit.*;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.configuration.ConfigurationSection;
@@ -58,12 +70,17 @@ import org.opentest4j.AssertionFailedError;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.cryptomorin.xseries.test.util.XLogger.log;
 import static org.junit.jupiter.api.Assertions.*;
@@ -85,6 +102,7 @@ public final class XSeriesTests {
         DifferenceHelper.versionDifference();
 
         testXMaterial();
+        testXMaterialMatchAll();
         testXSound();
         testXPotion();
         testXEnchantment();
@@ -95,6 +113,10 @@ public final class XSeriesTests {
         testXTag();
         testReflection();
 
+        testMinecraftClient();
+        testStaleProfiles();
+        testPersistentProfileCache();
+        testProfileInputTypes();
         if (Constants.TEST_MOJANG_API) testSkulls();
         else {
             try {
@@ -158,6 +180,16 @@ public final class XSeriesTests {
         assertTrue(XTag.CORALS.isTagged(XMaterial.TUBE_CORAL));
         assertTrue(XTag.LOGS_THAT_BURN.isTagged(XMaterial.STRIPPED_ACACIA_LOG));
         assertFalse(XTag.ANVIL.isTagged(XMaterial.BEDROCK));
+
+        XTag.Matcher<XMaterial> matcher = XTag.compiledStringMatcher(
+                Arrays.asList("STONE", "CONTAINS:chest", "contains:_DYE", "TAG:corals", "REGEX:^.{1,3}$"), null, true);
+        assertTrue(matcher.matches(XMaterial.STONE));
+        assertTrue(matcher.matches(XMaterial.TRAPPED_CHEST));
+        assertTrue(matcher.matches(XMaterial.GREEN_DYE));
+        assertTrue(matcher.matches(XMaterial.TUBE_CORAL));
+        assertTrue(matcher.matches(XMaterial.MAP));
+        assertFalse(matcher.matches(XMaterial.STONE_BRICKS));
+        assertFalse(matcher.matches(XMaterial.BEDROCK));
     }
 
     private static void testXParticle() {
@@ -168,6 +200,31 @@ public final class XSeriesTests {
                     .rotate(90, 90, 90).withCount(-1).offset(5, 5, 5).withExtra(1).forceSpawn(true);
             commonRegistryTest(XParticle.REGISTRY, Arrays.asList(values(Particle.class)));
         }
+        if (XReflection.supports(13)) {
+            assertTrue(ParticleDisplay.supportsBatching(), "Particle packets are not supported");
+            ParticleDisplay display = ParticleDisplay.of(XParticle.FLAME)
+                    .withLocation(new Location(Constants.getMainWorld(), 0, 100, 0))
+                    .rotate(0.3, 0.5, 0);
+            display.batch(() -> Particles.sphere(3, 5, display));
+            ParticleShape sphere = ParticleShape.sphere(3, 5);
+            assertSame(sphere, ParticleShape.sphere(3, 5));
+            display.batch(() -> sphere.spawn(display));
+            display.withViewDistance(48).withLevelOfDetail(16);
+            assertTrue(display.isCullingViewers());
+            sphere.spawn(display);
+            display.batch(() -> sphere.spawn(display));
+            display.withParticle(XParticle.DUST).withColor(java.awt.Color.RED, 1).beginBatch().spawn(1, 1, 1);
+            display.flushBatch();
+
+            ParticleDisplay tesseract = ParticleDisplay.of(XParticle.FLAME)
+                    .withLocation(new Location(Constants.getMainWorld(), 0, 100, 0));
+            ParticleAnimation animation = ParticleAnimation.of(tesseract, Particles.tesseract(1, 0.5, 0.1, 3, tesseract));
+            for (int ticks = 0; !animation.isDone(); ticks++) {
+                assertTrue(ticks < 10, "Particle animation didn't end");
+                while (!animation.isFrameReady()) Thread.yield();
+                animation.run();
+            }
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -334,6 +391,33 @@ public final class XSeriesTests {
             if (!material.name().startsWith("LEGACY")) XMaterial.matchXMaterial(material);
     }
 
+    private static void testXMaterialMatchAll() {
+        log("Testing XMaterial.matchAll()...");
+        List<String> mixed = Arrays.asList("STONE", "WOOL:14", "nope", "STONE", "CLAY_BRICK");
+        List<XMaterial> expected = Arrays.asList(XMaterial.STONE, XMaterial.RED_WOOL, null, XMaterial.STONE, XMaterial.BRICK);
+        assertEquals(expected, XMaterial.matchAll(mixed));
+        assertEquals(expected, XMaterial.matchAll(mixed.stream()).collect(Collectors.toList()));
+
+        assertThrows(IllegalArgumentException.class, () -> XMaterial.matchAll(Arrays.asList("STONE", null)));
+        assertThrows(IllegalArgumentException.class, () -> XMaterial.matchAll(Stream.of("STONE", null)).collect(Collectors.toList()));
+
+        // Enough distinct names to match them in parallel.
+        List<String> names = new ArrayList<>();
+        for (XMaterial material : XMaterial.values()) {
+            names.add(material.name());
+            names.add(material.name().toLowerCase(Locale.ENGLISH));
+            names.add(material.name().replace('_', ' '));
+            for (String legacy : material.getLegacy()) names.add(legacy);
+        }
+        for (int i = 0; i < 500; i++) names.add("UNKNOWN_MATERIAL_" + i);
+        assertTrue(new HashSet<>(names).size() >= 5000, "Not enough distinct names: " + new HashSet<>(names).size());
+
+        List<XMaterial> expectedAll = new ArrayList<>(names.size());
+        for (String name : names) expectedAll.add(XMaterial.matchXMaterial(name).orElse(null));
+        assertEquals(expectedAll, XMaterial.matchAll(names));
+        assertEquals(expectedAll, XMaterial.matchAll(names.parallelStream()).collect(Collectors.toList()));
+    }
+
     @SuppressWarnings("OptionalGetWithoutIsPresent")
     private static void assertMaterial(String parse, XMaterial expect) {
         Optional<XMaterial> parsed = XMaterial.matchXMaterial(parse);
@@ -424,6 +508,211 @@ public final class XSeriesTests {
         yaml.save(file);
     }
 
+    /**
+     * Tests the HTTP transport against a local server instead of Mojang.
+     */
+    private static void testMinecraftClient() {
+        log("Testing MinecraftClient with a local server...");
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot start local HTTP server", e);
+        }
+        server.createContext("/", exchange -> {
+            boolean found = exchange.getRequestURI().getPath().endsWith("/found");
+            byte[] response = ("{\"id\":\"069a79f444e94726a5befca90e38aaf5\",\"name\":\"Notch\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(found ? 200 : 404, found ? response.length : -1);
+            if (found) exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.start();
+
+        try {
+            MinecraftClient client = new MinecraftClient("GET",
+                    "http://127.0.0.1:" + server.getAddress().getPort() + "/profile/",
+                    new RateLimiter(10, Duration.ofSeconds(1)));
+            for (int i = 0; i < 3; i++) {
+                JsonElement found = client.session(null).append("found").request();
+                assertNotNull(found);
+                assertEquals("Notch", found.getAsJsonObject().get("name").getAsString());
+            }
+            assertNull(client.session(null).append("missing").request());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to request from local HTTP server", e);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Expired profiles should be returned instantly while they're refreshed in the background.
+     */
+    private static void testStaleProfiles() {
+        log("Testing stale-while-revalidate profiles...");
+        AtomicInteger fetches = new AtomicInteger();
+        TimedCacheableProfileable profileable = new TimedCacheableProfileable() {
+            @Override
+            protected Duration expiresAfter() {
+                return Duration.ofMillis(1);
+            }
+
+            @Override
+            protected Duration staleExpiresAfter() {
+                return Duration.ofMinutes(1);
+            }
+
+            @Override
+            protected GameProfile getProfile0() {
+                return PlayerProfiles.createGameProfile(UUID.randomUUID(), "Stale" + fetches.incrementAndGet());
+            }
+        };
+
+        GameProfile first = profileable.getProfile();
+        assertEquals(1, fetches.get());
+        sleep(5);
+        assertSame(first, profileable.getProfile(), "Expired profile was not served while revalidating");
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (profileable.getProfile() == first) {
+            if (System.currentTimeMillis() > deadline) fail("Profile was not revalidated in the background");
+            sleep(5);
+        }
+        assertTrue(fetches.get() >= 2);
+    }
+
+    /**
+     * Round-trips entries through a persistent cache in a temporary directory, reopens it,
+     * corrupts the end of its log, grows and compacts it and fails to compact it.
+     */
+    private static void testPersistentProfileCache() {
+        log("Testing persistent profile cache...");
+        UUID notch = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+        UUID jeb = UUID.fromString("853c80ef-3c37-49fd-aa49-938b674adae6");
+        int players = 2000;
+
+        try {
+            Path directory = Files.createTempDirectory("xseries-profiles");
+            Path logFile = directory.resolve("profiles.log");
+
+            try (PersistentProfileCache cache = openPersistentCache(directory)) {
+                assertNull(cache.getUUID("Notch"));
+                cache.putUUID("Notch", notch);
+                cache.putUUID("hjkSF3809HFGhs", null);
+                cache.putProfile(notch, new PersistentProfileCache.StoredProfile("Notch", "notch-textures", "notch-signature"));
+                cache.putProfile(jeb, new PersistentProfileCache.StoredProfile("jeb_", "jeb-textures", null));
+                assertPersistentEntries(cache, notch, jeb);
+            }
+
+            try (PersistentProfileCache cache = openPersistentCache(directory)) {
+                assertPersistentEntries(cache, notch, jeb);
+            }
+
+            // A partially written entry, like the one left by a crash.
+            long length = Files.size(logFile);
+            Files.write(logFile, new byte[]{0, 0, 0, 100, 2, 0, 0}, StandardOpenOption.APPEND);
+            long rewrites;
+            try (PersistentProfileCache cache = openPersistentCache(directory)) {
+                assertEquals(length, Files.size(logFile), "Corrupted end of the log was not truncated");
+                assertPersistentEntries(cache, notch, jeb);
+
+                // More keys than the initial capacity of the index.
+                for (int i = 0; i < players; i++) cache.putUUID("Player" + i, new UUID(0, i));
+                long grown = Files.size(logFile);
+
+                // Overwriting the same keys should compact the log instead of growing it forever.
+                for (rewrites = 1; rewrites <= 3; rewrites++) {
+                    for (int i = 0; i < players; i++) cache.putUUID("Player" + i, new UUID(rewrites, i));
+                }
+                assertTrue(Files.size(logFile) < grown * 3, () -> "Persistent log was not compacted: " + logFile);
+                assertPersistentEntries(cache, notch, jeb);
+            }
+
+            try (PersistentProfileCache cache = openPersistentCache(directory)) {
+                assertPersistentEntries(cache, notch, jeb);
+                for (int i = 0; i < players; i++) {
+                    assertEquals(Optional.of(new UUID(rewrites - 1, i)), cache.getUUID("player" + i));
+                }
+            }
+
+            // A compaction that can't replace the log shouldn't be retried on the next write.
+            try (PersistentProfileCache cache = openPersistentCache(directory)) {
+                AtomicInteger replaceAttempts = new AtomicInteger();
+                cache.setLogReplacer((compacted, log) -> {
+                    replaceAttempts.incrementAndGet();
+                    throw new IOException("Cannot replace open file " + log);
+                });
+
+                for (int i = 0; replaceAttempts.get() == 0; i++) {
+                    if (i > players * 10) fail("Persistent log was never compacted");
+                    cache.putUUID("Player" + (i % players), new UUID(rewrites, i % players));
+                }
+                cache.putUUID("Notch", notch);
+                assertEquals(1, replaceAttempts.get(), "Failed compaction was retried on the next write");
+                assertFalse(Files.exists(directory.resolve("profiles.log.compact")), "Compacted log was not deleted");
+                assertPersistentEntries(cache, notch, jeb);
+            }
+
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) Files.delete(file);
+            }
+            Files.delete(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to test persistent profile cache", e);
+        }
+    }
+
+    private static PersistentProfileCache openPersistentCache(Path directory) throws IOException {
+        return PersistentProfileCache.open(directory, Duration.ofDays(1), Duration.ofDays(1));
+    }
+
+    private static void assertPersistentEntries(PersistentProfileCache cache, UUID notch, UUID jeb) {
+        assertEquals(Optional.of(notch), cache.getUUID("notch"));
+        assertEquals(Optional.empty(), cache.getUUID("hjkSF3809HFGhs"));
+
+        PersistentProfileCache.StoredProfile notchProfile = cache.getProfile(notch).orElseThrow(AssertionError::new);
+        assertEquals("Notch", notchProfile.name);
+        assertEquals("notch-textures", notchProfile.textures);
+        assertEquals("notch-signature", notchProfile.signature);
+
+        PersistentProfileCache.StoredProfile jebProfile = cache.getProfile(jeb).orElseThrow(AssertionError::new);
+        assertEquals("jeb-textures", jebProfile.textures);
+        assertNull(jebProfile.signature);
+    }
+
+    private static void testProfileInputTypes() {
+        log("Testing profile input types...");
+        assertProfileInputType("Notch", ProfileInputType.USERNAME);
+        assertProfileInputType("069a79f4-44e9-4726-a5be-fca90e38aaf5", ProfileInputType.UUID);
+        assertProfileInputType("f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990", ProfileInputType.TEXTURE_HASH);
+        assertProfileInputType("https://textures.minecraft.net/texture/f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990", ProfileInputType.TEXTURE_URL);
+        assertProfileInputType("minecraft.net/texture/f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990", ProfileInputType.TEXTURE_URL);
+        assertProfileInputType("eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvYzI0ZTY3ZGNlN2E0NDE4ZjdkYmE3MTE3MDQxODAzMDQ1MDVhMDM3YzEyZjE1NWE3MDYwM2UxOWYxMzIwMzRiMSJ9fX0=", ProfileInputType.BASE64);
+        assertProfileInputType("Invalid String 4825uh89Y(&$#Y#Q(&$T(", null);
+        assertProfileInputType("", null);
+        assertProfileInputType("069a79f4-44e9-4726-a5be-fca90e38aaf", null);
+        assertProfileInputType("http:/minecraft.net/texture/f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990", null);
+
+        // The same texture should be shared between different inputs.
+        assertSame(
+                ProfileInputType.TEXTURE_HASH.getProfile("c24e67dce7a4418f7dba711704180304505a037c12f155a70603e19f132034b1"),
+                ProfileInputType.BASE64.getProfile("eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvYzI0ZTY3ZGNlN2E0NDE4ZjdkYmE3MTE3MDQxODAzMDQ1MDVhMDM3YzEyZjE1NWE3MDYwM2UxOWYxMzIwMzRiMSJ9fX0=")
+        );
+    }
+
+    private static void assertProfileInputType(String input, ProfileInputType expected) {
+        assertEquals(expected, ProfileInputType.typeOf(input), () -> "Wrong type for: " + input);
+        assertEquals(expected, ProfileInputType.typeOfByPattern(input), () -> "Wrong pattern type for: " + input);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static void testSkulls() {
         log("Testing skulls UUID...");
         XSkull.createItem().profile(Profileable.of(UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5"))).apply();
@@ -444,6 +733,11 @@ public final class XSeriesTests {
         XSkull.createItem()
                 .profile(Profileable.username("F(&$#%Y(@&$(@#$Y_{GFS!"))
                 .lenient().apply();
+        log("Testing skulls hedged fallbacks");
+        XSkull.createItem()
+                .profile(Profileable.username("hjkSF3809HFGhs"))
+                .fallback(Profileable.username("CryptoMorin"), Profileable.detect("f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990"))
+                .hedged().apply();
 
         // Currently broken. Seems like Mojang disabled this API? Read MojangAPI.usernamesToUUIDs for more info.
         if (Constants.TEST_MOJANG_API_BULK) {
@@ -50,6 +50,11 @@ public class BenchmarkMain extends Thread implements Thread.UncaughtExceptionHan
                 // .include(ReflectionBenchmarkSetup.class.getSimpleName())
                 // .include(ReflectionBenchmarkExecution.class.getSimpleName())
                 // .include(GameProfileBenchmark.class.getSimpleName())
+                // .include(XTagBenchmark.class.getSimpleName())
+                // .include(MaterialPropertyBenchmark.class.getSimpleName())
+                // .include(RateLimiterBenchmark.class.getSimpleName())
+                // .include(ParticleBenchmark.class.getSimpleName())
+                // .include(ParticleAnimationBenchmark.class.getSimpleName())
                 // .forks(0) // Terrible, but we need the server state...
                 .shouldFailOnError(true)
                 .mode(Mode.AverageTime)
@@ -26,6 +26,7 @@ import com.cryptomorin.xseries.profiles.objects.ProfileInputType;
 import com.cryptomorin.xseries.profiles.objects.Profileable;
 import com.mojang.authlib.GameProfile;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -67,6 +68,36 @@ public class GameProfileBenchmark {
         }
     }
 
+    /**
+     * Only detects the type of realistic config values without requesting anything.
+     */
+    @State(Scope.Benchmark)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 4)
+    @Threads(1)
+    @Fork(0)
+    public static class TypeOfTest {
+        private static final String[] VALUES = {
+                "Notch", "CryptoMorin", "jeb_", "Invalid String 4825uh89Y(&$#Y#Q(&$T(", "",
+                "069a79f4-44e9-4726-a5be-fca90e38aaf5", "45d3f688-0765-4725-b5dd-dbc28fdfc9ab",
+                "f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990",
+                "0a4050e7aacc4539202658fdc339dd182d7e322f9fbcc4d5f99b5718a",
+                "https://textures.minecraft.net/texture/f9f28fe3a81d67e67472b7b91caad063722477dfc37f0d729a19be49c2ec2990",
+                "eyJ0ZXh0dXJlcyI6eyJTS0lOIjp7InVybCI6Imh0dHA6Ly90ZXh0dXJlcy5taW5lY3JhZnQubmV0L3RleHR1cmUvYzI0ZTY3ZGNlN2E0NDE4ZjdkYmE3MTE3MDQxODAzMDQ1MDVhMDM3YzEyZjE1NWE3MDYwM2UxOWYxMzIwMzRiMSJ9fX0="
+        };
+
+        @Benchmark
+        public void typeOf(Blackhole blackhole) {
+            for (String value : VALUES) blackhole.consume(ProfileInputType.typeOf(value));
+        }
+
+        @Benchmark
+        public void typeOfByPattern(Blackhole blackhole) {
+            for (String value : VALUES) blackhole.consume(ProfileInputType.typeOfByPattern(value));
+        }
+    }
+
     @Benchmark
     @Warmup(iterations = 0)
     @Measurement(iterations = 1, batchSize = 10)
@@ -0,0 +1,71 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.test.benchmark;
+
+import com.cryptomorin.xseries.XMaterial;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link XMaterial#hasProperty(XMaterial.Property)} with the Bukkit checks it replaces.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Threads(3)
+@Fork(0)
+public class MaterialPropertyBenchmark {
+    private XMaterial material;
+
+    @Setup(Level.Iteration)
+    public void setupMaterial() {
+        material = RandomUtil.random(XMaterial.VALUES);
+        // Computes the table outside the measurement.
+        material.hasProperty(XMaterial.Property.ITEM);
+    }
+
+    @Benchmark
+    public boolean Bukkit_isItem() {
+        Material bukkit = material.get();
+        return bukkit != null && bukkit.isItem();
+    }
+
+    @Benchmark
+    public boolean Property_isItem() {
+        return material.hasProperty(XMaterial.Property.ITEM);
+    }
+
+    @Benchmark
+    public boolean Bukkit_isInteractable() {
+        Material bukkit = material.get();
+        return bukkit != null && bukkit.isInteractable();
+    }
+
+    @Benchmark
+    public boolean Property_isInteractable() {
+        return material.hasProperty(XMaterial.Property.INTERACTABLE);
+    }
+}
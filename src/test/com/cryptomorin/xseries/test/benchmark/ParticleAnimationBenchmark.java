@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+package com.cryptomorin.xseries.test.benchmark;
+
+import com.cryptomorin.xseries.particles.ParticleAnimation;
+import com.cryptomorin.xseries.particles.ParticleDisplay;
+import com.cryptomorin.xseries.particles.Particles;
+import com.cryptomorin.xseries.particles.XParticle;
+import com.cryptomorin.xseries.test.Constants;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Measures how much of the server tick a {@link Particles#tesseract(double, double, double, long, ParticleDisplay)}
+ * animation takes when its frames are computed in the tick, compared to a {@link ParticleAnimation}
+ * where the tick only sends the frame that was computed by the workers.
+ * <p>
+ * The next frame is always ready before a {@link ParticleAnimation} tick is measured,
+ * just like a real server where the workers have a whole tick (50ms) to compute it.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 4)
+@Threads(1)
+@Fork(0)
+public class ParticleAnimationBenchmark {
+    private ParticleDisplay inlineDisplay;
+    private BooleanSupplier inline;
+    private ParticleAnimation animation;
+
+    @Setup(Level.Trial)
+    public void setupAnimations() {
+        inlineDisplay = display();
+        inline = tesseract(inlineDisplay);
+
+        ParticleDisplay display = display();
+        animation = ParticleAnimation.of(display, tesseract(display));
+    }
+
+    @TearDown(Level.Trial)
+    public void cancel() {
+        animation.cancel();
+    }
+
+    @Setup(Level.Invocation)
+    public void awaitFrame() {
+        while (!animation.isFrameReady()) Thread.yield();
+    }
+
+    private static ParticleDisplay display() {
+        return ParticleDisplay.of(XParticle.FLAME).withLocation(new Location(Constants.getMainWorld(), 0, 100, 0));
+    }
+
+    private static BooleanSupplier tesseract(ParticleDisplay display) {
+        return Particles.tesseract(2, 0.1, 0.05, Long.MAX_VALUE, display);
+    }
+
+    @Benchmark
+    public void inline() {
+        inlineDisplay.batch(inline::getAsBoolean);
+    }
+
+    @Benchmark
+    public void pipelined() {
+        animation.run();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.test.benchmark;
+
+import com.cryptomorin.xseries.particles.ParticleDisplay;
+import com.cryptomorin.xseries.particles.ParticleShape;
+import com.cryptomorin.xseries.particles.Particles;
+import com.cryptomorin.xseries.particles.XParticle;
+import com.cryptomorin.xseries.test.Constants;
+import com.cryptomorin.xseries.test.util.XLogger;
+import org.bukkit.Location;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Particles#sphere(double, double, ParticleDisplay)} which uses
+ * {@link ParticleDisplay#spawnPoint(double, double, double)} with the same shape spawned through
+ * {@link ParticleDisplay#spawn(double, double, double)} which allocates the location for every point,
+ * and the same shape replayed from a precomputed {@link ParticleShape}.
+ * <p>
+ * The "points" counter is the number of points per second, and the allocated bytes
+ * per point of the benchmark thread are logged after each iteration.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 4)
+@Threads(1)
+@Fork(0)
+public class ParticleBenchmark {
+    private static final double RADIUS = 3, RATE = 20;
+    private static final long SPHERE_POINTS = spherePoints();
+
+    private ParticleDisplay display;
+    private ParticleShape shape;
+    private long allocatedBefore, pointsBefore;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Points {
+        public long points;
+    }
+
+    @Setup(Level.Trial)
+    public void setupDisplay() {
+        display = ParticleDisplay.of(XParticle.FLAME)
+                .withLocation(new Location(Constants.getMainWorld(), 0, 100, 0))
+                .rotate(0.3, 0.5, 0);
+        shape = ParticleShape.sphere(RADIUS, RATE);
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting(Points points) {
+        allocatedBefore = allocatedBytes();
+        pointsBefore = points.points;
+    }
+
+    @TearDown(Level.Iteration)
+    public void logAllocations(Points points) {
+        long spawned = points.points - pointsBefore;
+        if (spawned == 0) return;
+        XLogger.log("[ParticleBenchmark] Allocated " + ((allocatedBytes() - allocatedBefore) / spawned) + " bytes/point");
+    }
+
+    @SuppressWarnings("restriction")
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Benchmark
+    public void sphere(Points points) {
+        Particles.sphere(RADIUS, RATE, display);
+        points.points += SPHERE_POINTS;
+    }
+
+    @Benchmark
+    public void sphere_shape(Points points) {
+        shape.spawn(display);
+        points.points += shape.size();
+    }
+
+    @Benchmark
+    public void sphere_allocating(Points points) {
+        // The previous implementation of Particles.sphere()
+        double rateDiv = Math.PI / RATE;
+        for (double phi = 0; phi <= Math.PI; phi += rateDiv) {
+            double y1 = RADIUS * Math.cos(phi);
+            double y2 = RADIUS * Math.sin(phi);
+            for (double theta = 0; theta <= Particles.PII; theta += rateDiv) {
+                display.spawn(Math.cos(theta) * y2, y1, Math.sin(theta) * y2);
+            }
+        }
+        points.points += SPHERE_POINTS;
+    }
+
+    private static long spherePoints() {
+        long points = 0;
+        double rateDiv = Math.PI / RATE;
+        for (double phi = 0; phi <= Math.PI; phi += rateDiv) {
+            for (double theta = 0; theta <= Particles.PII; theta += rateDiv) points++;
+        }
+        return points;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.test.benchmark;
+
+import com.cryptomorin.xseries.profiles.mojang.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link RateLimiter} with the previous implementation that kept a timestamp for every request.
+ * Both limiters are filled with 10,000 requests, which is what the queue had to go through on every check.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@Threads(4)
+@Fork(0)
+public class RateLimiterBenchmark {
+    private static final int REQUESTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private QueueRateLimiter queueRateLimiter;
+
+    @Setup(Level.Iteration)
+    public void setupLimiters() {
+        rateLimiter = new RateLimiter(Integer.MAX_VALUE, Duration.ofMinutes(10));
+        queueRateLimiter = new QueueRateLimiter(Integer.MAX_VALUE, Duration.ofMinutes(10));
+        for (int i = 0; i < REQUESTS; i++) {
+            rateLimiter.acquire();
+            queueRateLimiter.acquire();
+        }
+    }
+
+    @Benchmark
+    public boolean GCRA_acquire() {
+        return rateLimiter.acquire();
+    }
+
+    @Benchmark
+    public boolean Queue_acquire() {
+        return queueRateLimiter.acquire();
+    }
+
+    @Benchmark
+    public int GCRA_remaining() {
+        return rateLimiter.getRemainingRequests();
+    }
+
+    @Benchmark
+    public int Queue_remaining() {
+        return queueRateLimiter.getRemainingRequests();
+    }
+
+    /**
+     * The previous implementation of {@link RateLimiter}.
+     */
+    private static final class QueueRateLimiter {
+        private final ConcurrentLinkedQueue<Long> requests = new ConcurrentLinkedQueue<>();
+        private final int maxRequests;
+        private final long per;
+
+        QueueRateLimiter(int maxRequests, Duration per) {
+            this.maxRequests = maxRequests;
+            this.per = per.toMillis();
+        }
+
+        private ConcurrentLinkedQueue<Long> getRequests() {
+            if (requests.isEmpty()) return requests;
+
+            long now = System.currentTimeMillis();
+            Iterator<Long> iter = requests.iterator();
+            while (iter.hasNext()) {
+                long requestedAt = iter.next();
+                long diff = now - requestedAt;
+                if (diff > per) iter.remove();
+                else break;
+            }
+
+            return requests;
+        }
+
+        int getRemainingRequests() {
+            return Math.max(0, maxRequests - getRequests().size());
+        }
+
+        boolean acquire() {
+            if (getRemainingRequests() <= 0) {
+                return false;
+            } else {
+                requests.add(System.currentTimeMillis());
+                return true;
+            }
+        }
+    }
+}
@@ -22,12 +22,19 @@
 
 package com.cryptomorin.xseries.test.benchmark;
 
+import com.cryptomorin.xseries.XBiome;
+import com.cryptomorin.xseries.XEnchantment;
 import com.cryptomorin.xseries.XMaterial;
 import com.cryptomorin.xseries.XSound;
 import org.bukkit.Material;
 import org.bukkit.Sound;
+import org.bukkit.block.Biome;
+import org.bukkit.enchantments.Enchantment;
 import org.openjdk.jmh.annotations.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -74,8 +81,15 @@ public class RegistryBenchmark {
     public static class MaterialNames {
         public String materialName;
 
-        private static final String[] VALUES =
-                {"ACACIA_BOAT", "VALID_DOESNT_EXIST", "randOm #4n Name", "bamboo.raft", "", "AMBIENT_CAVE", "minecraft:air"};
+        /**
+         * A mix of modern names, legacy names with and without data values and unknown
+         * names which is similar to what's found in old plugin configs.
+         */
+        private static final String[] VALUES = {
+                "ACACIA_BOAT", "VALID_DOESNT_EXIST", "randOm #4n Name", "bamboo.raft", "", "AMBIENT_CAVE", "minecraft:air",
+                "WOOL:14", "INK_SACK:1", "STAINED_GLASS_PANE:3", "SKULL_ITEM:3", "WOOD_SWORD", "LOG_2", "WOOL:99",
+                "ENDER_PORTAL_FRAME", "diamond sword", "GOLD_SWORDD", "red-wool", "STONE:abc", "SNOW_BALL"
+        };
 
         @Setup(Level.Iteration)
         public void setupName() {
@@ -88,6 +102,92 @@ public class RegistryBenchmark {
         }
     }
 
+    /**
+     * Loading a large shop/crate config with many repeated entries.
+     */
+    @State(Scope.Benchmark)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 3)
+    @Threads(1)
+    @Fork(0)
+    public static class MaterialBatch {
+        private final List<String> names = new ArrayList<>(50_000);
+
+        @Setup(Level.Trial)
+        public void setupNames() {
+            for (int i = 0; i < 50_000; i++) {
+                names.add(RandomUtil.random(MaterialNames.VALUES));
+            }
+        }
+
+        @Benchmark
+        public List<XMaterial> XMaterial_matchEach() {
+            List<XMaterial> materials = new ArrayList<>(names.size());
+            for (String name : names) {
+                materials.add(XMaterial.matchXMaterial(name).orElse(null));
+            }
+            return materials;
+        }
+
+        @Benchmark
+        public List<XMaterial> XMaterial_matchAll() {
+            return XMaterial.matchAll(names);
+        }
+    }
+
+    /**
+     * Read throughput of {@link com.cryptomorin.xseries.base.XRegistry} snapshots when accessed
+     * from multiple async threads at the same time.
+     */
+    @State(Scope.Benchmark)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 3)
+    @BenchmarkMode(Mode.Throughput)
+    @Fork(0)
+    public static class ConcurrentReads {
+        private static final String[] NAMES = {"AMBIENT_CAVE", "minecraft:block.anvil.hit", "PLAINS", "sharpness", "VALID_DOESNT_EXIST"};
+
+        private Object read() {
+            XSound.of(Sound.AMBIENT_CAVE);
+            XBiome.of(Biome.PLAINS);
+            XEnchantment.of(Enchantment.UNBREAKING);
+            // Don't use RandomUtil, its shared Random instance is contended between threads.
+            return XSound.of(NAMES[ThreadLocalRandom.current().nextInt(NAMES.length)]);
+        }
+
+        @Benchmark
+        @Threads(1)
+        public Object XRegistry_read_1() {
+            return read();
+        }
+
+        @Benchmark
+        @Threads(4)
+        public Object XRegistry_read_4() {
+            return read();
+        }
+
+        @Benchmark
+        @Threads(8)
+        public Object XRegistry_read_8() {
+            return read();
+        }
+
+        @Benchmark
+        @Threads(16)
+        public Object XRegistry_read_16() {
+            return read();
+        }
+
+        @Benchmark
+        @Threads(32)
+        public Object XRegistry_read_32() {
+            return read();
+        }
+    }
+
     @Benchmark
     public XSound XRegistry_matchBukkit() {
         return XSound.of(Sound.AMBIENT_CAVE);
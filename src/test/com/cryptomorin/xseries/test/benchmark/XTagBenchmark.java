@@ -0,0 +1,132 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2025 Crypto Morin
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED,
+ * INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR
+ * PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE
+ * FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE,
+ * ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.cryptomorin.xseries.test.benchmark;
+
+import com.cryptomorin.xseries.XTag;
+import com.cryptomorin.xseries.test.util.XLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of initializing {@link XTag} at startup.
+ * Every invocation loads XSeries again in a new class loader, so the class is initialized from scratch.
+ * {@code XMaterial} is initialized before each invocation, so only the tags themselves are measured.
+ * <p>
+ * The retained heap of each invocation is logged after the benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(0)
+public class XTagBenchmark {
+    private static final String PACKAGE = "com.cryptomorin.xseries.";
+
+    private ClassLoader loader;
+    private Object retained;
+    private long heapBefore;
+
+    /**
+     * Loads XSeries classes itself and leaves everything else (mainly Bukkit) to the parent.
+     */
+    private static final class IsolatedClassLoader extends URLClassLoader {
+        private IsolatedClassLoader() {
+            super(new URL[]{XTag.class.getProtectionDomain().getCodeSource().getLocation()},
+                    XTag.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PACKAGE)) return super.loadClass(name, resolve);
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) clazz = findClass(name);
+                if (resolve) resolveClass(clazz);
+                return clazz;
+            }
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void newClassLoader() throws ClassNotFoundException {
+        loader = new IsolatedClassLoader();
+        Class.forName(PACKAGE + "XMaterial", true, loader);
+        heapBefore = usedHeap();
+    }
+
+    @TearDown(Level.Invocation)
+    public void logRetainedHeap() {
+        long retainedHeap = usedHeap() - heapBefore;
+        XLogger.log("XTag retained heap: " + (retainedHeap / 1024) + " KB");
+        retained = null;
+        loader = null;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Benchmark
+    public Object XTag_classInit() throws ClassNotFoundException {
+        return retained = Class.forName(PACKAGE + "XTag", true, loader);
+    }
+
+    /**
+     * What a plugin that only uses a few tags pays for.
+     */
+    @Benchmark
+    public Object XTag_classInitAndFewTags() throws ReflectiveOperationException {
+        return retained = resolveTags("AIR", "FLUID", "LOGS", "WOOL", "INVENTORY_NOT_DISPLAYABLE");
+    }
+
+    @Benchmark
+    public Object XTag_classInitAndAllTags() throws ReflectiveOperationException {
+        return retained = resolveTags((String[]) null);
+    }
+
+    private Object resolveTags(String... names) throws ReflectiveOperationException {
+        Class<?> xTag = Class.forName(PACKAGE + "XTag", true, loader);
+        Method getValues = xTag.getMethod("getValues");
+
+        if (names == null) {
+            for (Field field : xTag.getFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && field.getType() == xTag) {
+                    getValues.invoke(field.get(null));
+                }
+            }
+        } else {
+            for (String name : names) getValues.invoke(xTag.getField(name).get(null));
+        }
+
+        return xTag;
+    }
+}